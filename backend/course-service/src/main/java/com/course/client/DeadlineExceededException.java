@@ -0,0 +1,11 @@
+package com.course.client;
+
+/**
+ * Levée quand l'échéance de la requête est dépassée avant un appel au Gym Service
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -2,7 +2,10 @@ package com.course.client;
 
 import feign.Logger;
 import feign.Request;
+import feign.RequestInterceptor;
 import feign.Retryer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -14,9 +17,28 @@ import java.util.concurrent.TimeUnit;
 @Configuration
 public class GymClientConfiguration {
 
+    @Autowired
+    private GymClientMetrics gymClientMetrics;
+
+    @Autowired
+    private RetryBudget retryBudget;
+
+    @Value("${gym-service.retry.period-ms:1000}")
+    private long retryPeriodMs;
+
+    @Value("${gym-service.retry.max-period-ms:3000}")
+    private long retryMaxPeriodMs;
+
+    @Value("${gym-service.retry.max-attempts:3}")
+    private int retryMaxAttempts;
+
+    /**
+     * BASIC: ligne de requête, statut et durée (FULL journalise chaque corps: coûteux sous charge)
+     * Surchargé par feign.client.config.default.logger-level
+     */
     @Bean
     public Logger.Level feignLoggerLevel() {
-        return Logger.Level.FULL;
+        return Logger.Level.BASIC;
     }
 
     @Bean
@@ -29,10 +51,25 @@ public class GymClientConfiguration {
 
     @Bean
     public Retryer retryer() {
-        return new Retryer.Default(
-            1000,  // période initiale en ms
-            3000,  // période maximale en ms
-            3      // nombre maximum de tentatives
-        );
+        // Backoff exponentiel borné par le budget partagé et l'échéance de la requête
+        return new GymClientRetryer(retryPeriodMs, retryMaxPeriodMs, retryMaxAttempts, retryBudget, gymClientMetrics);
+    }
+
+    /**
+     * Transmet le temps restant avant l'échéance au Gym Service
+     * Aucun appel n'est émis si l'échéance est déjà dépassée
+     */
+    @Bean
+    public RequestInterceptor requestDeadlineInterceptor() {
+        return template -> {
+            if (!RequestDeadline.isSet()) {
+                return;
+            }
+            long remainingMs = RequestDeadline.remainingMillis();
+            if (remainingMs <= 0) {
+                throw new DeadlineExceededException("Échéance dépassée avant l'appel " + template.method() + " " + template.url());
+            }
+            template.header(RequestDeadline.HEADER, String.valueOf(remainingMs));
+        };
     }
 }
\ No newline at end of file
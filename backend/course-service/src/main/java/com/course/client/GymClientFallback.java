@@ -36,4 +36,10 @@ public class GymClientFallback implements GymClientWithCircuitBreaker {
         
         return fallbackGym;
     }
+
+    @Override
+    public List<GymDTO> getGymsByIds(List<String> ids) {
+        logger.warn("Fallback activé pour getGymsByIds({} ids) - Service Gym indisponible", ids.size());
+        return new ArrayList<>();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.course.client;
+
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Métriques Micrometer des appels Feign vers le Gym Service
+ * Timer gym.client.requests (client, method, outcome) avec histogramme pour les percentiles / SLO
+ * Compteur gym.client.retries pour les nouvelles tentatives du Retryer Feign
+ */
+@Component
+public class GymClientMetrics {
+
+    public static final String CLIENT = "gym-service";
+    public static final String CLIENT_WITH_CB = "gym-service-with-cb";
+
+    /**
+     * Issue d'un appel vers le Gym Service
+     */
+    public enum Outcome {
+        SUCCESS,      // Réponse reçue
+        FALLBACK,     // Échec couvert par une réponse de repli
+        TIMEOUT,      // Délai de connexion ou de lecture dépassé
+        CB_REJECTED,  // Appel refusé par le Circuit Breaker ouvert
+        BULKHEAD_FULL, // Appels simultanés au maximum (bulkhead)
+        RATE_LIMITED, // Limite d'appels par période atteinte (rate limiter)
+        ERROR;        // Échec propagé à l'appelant (client sans Circuit Breaker)
+
+        public String tag() {
+            return name().toLowerCase();
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Exécute et chronomètre un appel; l'échec est classé puis l'exception est relancée
+     *
+     * @param failureOutcome issue enregistrée pour un échec qui n'est ni un timeout ni un rejet du CB
+     */
+    public <T> T record(String client, String method, Outcome failureOutcome, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            T result = call.get();
+            stop(sample, client, method, Outcome.SUCCESS);
+            return result;
+        } catch (RuntimeException e) {
+            stop(sample, client, method, classify(e, failureOutcome));
+            throw e;
+        }
+    }
+
+    /**
+     * Compte une nouvelle tentative (retried) ou son refus: tentatives épuisées (exhausted),
+     * budget de retries vide (budget_exhausted), échéance de la requête trop proche (deadline)
+     */
+    public void countRetry(RetryableException e, String outcome) {
+        meterRegistry.counter("gym.client.retries",
+            "httpMethod", e.method() != null ? e.method().name() : "UNKNOWN",
+            "reason", isTimeout(e) ? "timeout" : "error",
+            "outcome", outcome).increment();
+    }
+
+    private void stop(Timer.Sample sample, String client, String method, Outcome outcome) {
+        sample.stop(Timer.builder("gym.client.requests")
+            .description("Durée des appels Feign vers le Gym Service")
+            .tag("client", client)
+            .tag("method", method)
+            .tag("outcome", outcome.tag())
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+
+    private Outcome classify(Throwable e, Outcome otherwise) {
+        if (e instanceof CallNotPermittedException) {
+            return Outcome.CB_REJECTED;
+        }
+        if (e instanceof BulkheadFullException) {
+            return Outcome.BULKHEAD_FULL;
+        }
+        if (e instanceof RequestNotPermitted) {
+            return Outcome.RATE_LIMITED;
+        }
+        return isTimeout(e) ? Outcome.TIMEOUT : otherwise;
+    }
+
+    private boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException
+                    || cause instanceof DeadlineExceededException
+                    || cause instanceof HttpTimeoutException
+                    || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
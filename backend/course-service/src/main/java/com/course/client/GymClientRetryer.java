@@ -0,0 +1,68 @@
+package com.course.client;
+
+import feign.RetryableException;
+import feign.Retryer;
+
+/**
+ * Retryer Feign à backoff exponentiel (même progression que Retryer.Default), borné par:
+ * - le budget de nouvelles tentatives partagé (RetryBudget)
+ * - l'échéance de la requête en cours (RequestDeadline): pas de tentative qui finirait après l'échéance
+ * Chaque décision est comptée dans gym.client.retries
+ */
+public class GymClientRetryer implements Retryer {
+
+    private final long period;
+    private final long maxPeriod;
+    private final int maxAttempts;
+    private final RetryBudget budget;
+    private final GymClientMetrics metrics;
+
+    private int attempt = 1;
+
+    public GymClientRetryer(long period, long maxPeriod, int maxAttempts,
+                            RetryBudget budget, GymClientMetrics metrics) {
+        this.period = period;
+        this.maxPeriod = maxPeriod;
+        this.maxAttempts = maxAttempts;
+        this.budget = budget;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+        if (attempt++ >= maxAttempts) {
+            metrics.countRetry(e, "exhausted");
+            throw e;
+        }
+
+        long interval = nextInterval();
+        if (interval >= RequestDeadline.remainingMillis()) {
+            metrics.countRetry(e, "deadline");
+            throw e;
+        }
+        if (!budget.tryAcquire()) {
+            metrics.countRetry(e, "budget_exhausted");
+            throw e;
+        }
+
+        try {
+            Thread.sleep(interval);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+        metrics.countRetry(e, "retried");
+    }
+
+    private long nextInterval() {
+        long interval = (long) (period * Math.pow(1.5, attempt - 1));
+        return Math.min(interval, maxPeriod);
+    }
+
+    @Override
+    public Retryer clone() {
+        // Feign clone le Retryer une fois par appel: c'est là que le budget est alimenté
+        budget.deposit();
+        return new GymClientRetryer(period, maxPeriod, maxAttempts, budget, metrics);
+    }
+}
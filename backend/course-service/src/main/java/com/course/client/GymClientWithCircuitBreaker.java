@@ -4,6 +4,8 @@ import com.course.dto.GymDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import java.util.List;
 
@@ -24,4 +26,7 @@ public interface GymClientWithCircuitBreaker {
 
     @GetMapping("/gyms/{id}")
     GymDTO getGymById(@PathVariable("id") String id);
+
+    @PostMapping("/gyms/batch")
+    List<GymDTO> getGymsByIds(@RequestBody List<String> ids);
 }
\ No newline at end of file
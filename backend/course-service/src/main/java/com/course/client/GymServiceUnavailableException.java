@@ -0,0 +1,12 @@
+package com.course.client;
+
+/**
+ * Levée quand le Gym Service n'a pas pu répondre (Circuit Breaker ouvert, bulkhead, délai, erreur d'appel)
+ * Distingue une salle non vérifiable d'une salle inexistante
+ */
+public class GymServiceUnavailableException extends RuntimeException {
+
+    public GymServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,64 @@
+package com.course.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Échéance de la requête en cours, portée par le thread qui la traite
+ * Transmise au Gym Service dans l'en-tête X-Request-Deadline-Ms (temps restant en millisecondes,
+ * relatif pour ne pas dépendre de la synchronisation des horloges entre services)
+ */
+public final class RequestDeadline {
+
+    public static final String HEADER = "X-Request-Deadline-Ms";
+
+    // Échéance en System.nanoTime() (horloge monotone)
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Fixe l'échéance à maintenant + timeoutMs
+     */
+    public static void startIn(long timeoutMs) {
+        DEADLINE.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+    }
+
+    /**
+     * Échéance courante (null si aucune), à transmettre aux threads qui travaillent pour la requête
+     */
+    public static Long get() {
+        return DEADLINE.get();
+    }
+
+    public static void set(Long deadlineNanos) {
+        if (deadlineNanos == null) {
+            DEADLINE.remove();
+        } else {
+            DEADLINE.set(deadlineNanos);
+        }
+    }
+
+    public static boolean isSet() {
+        return DEADLINE.get() != null;
+    }
+
+    /**
+     * Temps restant en millisecondes (Long.MAX_VALUE sans échéance, négatif ou nul si dépassée)
+     */
+    public static long remainingMillis() {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+
+    public static boolean isExpired() {
+        return remainingMillis() <= 0;
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+}
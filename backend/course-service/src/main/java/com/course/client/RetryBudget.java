@@ -0,0 +1,56 @@
+package com.course.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Budget de nouvelles tentatives partagé par tous les appels Feign vers le Gym Service (seau à jetons)
+ * Chaque appel dépose budget-ratio jeton, chaque nouvelle tentative en consomme un:
+ * pendant un incident les retries restent bornés à une fraction du trafic au lieu de le multiplier
+ */
+@Component
+public class RetryBudget {
+
+    // Jetons exprimés en millièmes pour rester en arithmétique entière
+    private static final long TOKEN = 1000;
+
+    private final AtomicLong tokens = new AtomicLong();
+
+    private final long deposit;
+    private final long maxTokens;
+
+    public RetryBudget(@Value("${gym-service.retry.budget-ratio:0.1}") double budgetRatio,
+                       @Value("${gym-service.retry.budget-burst:10}") int budgetBurst) {
+        this.deposit = Math.round(budgetRatio * TOKEN);
+        this.maxTokens = budgetBurst * TOKEN;
+        this.tokens.set(maxTokens);
+    }
+
+    /**
+     * Alimente le budget (appelé une fois par appel Feign, pas par tentative)
+     */
+    public void deposit() {
+        tokens.updateAndGet(current -> Math.min(maxTokens, current + deposit));
+    }
+
+    /**
+     * Consomme un jeton entier si disponible
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long current = tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    public double available() {
+        return (double) tokens.get() / TOKEN;
+    }
+}
@@ -0,0 +1,46 @@
+package com.course.config;
+
+import com.course.entity.Course;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aligne le générateur d'IDs des cours sur les données existantes
+ * Les cours créés auparavant avec IDENTITY ont des IDs que le générateur par table ne connaît pas:
+ * on place sa valeur au-dessus de MAX(id) avant la première insertion
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class CourseIdGeneratorInitializer implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseIdGeneratorInitializer.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        // Marge de deux blocs pour couvrir l'interprétation "pooled" de la valeur stockée
+        long margin = 2L * Course.ID_ALLOCATION_SIZE;
+
+        long floor = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(MAX(id), 0) FROM courses", Long.class) + margin;
+
+        // Un seul upsert (sequence_name est la clé primaire de la table): deux instances démarrées
+        // ensemble ne se heurtent pas sur la création de la ligne, et next_val ne recule jamais
+        jdbcTemplate.update(
+            "INSERT INTO " + Course.ID_TABLE + " (sequence_name, next_val) VALUES (?, ?) " +
+            "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, ?)",
+            Course.ID_SEGMENT, floor, floor);
+
+        Long nextVal = jdbcTemplate.queryForObject(
+            "SELECT next_val FROM " + Course.ID_TABLE + " WHERE sequence_name = ?",
+            Long.class, Course.ID_SEGMENT);
+        logger.info("Générateur d'IDs des cours initialisé: next_val={}", nextVal);
+    }
+}
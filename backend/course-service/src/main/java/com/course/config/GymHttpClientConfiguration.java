@@ -0,0 +1,106 @@
+package com.course.config;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Client HTTP utilisé par les clients Feign vers le Gym Service (gym-service.http-client.type)
+ * - default: HttpURLConnection du JDK (comportement historique)
+ * - hc5: Apache HttpClient 5 avec pool de connexions keep-alive, éviction des connexions inactives
+ *   et métriques du pool (httpcomponents.httpclient.pool.*)
+ * - http2: HttpClient du JDK en HTTP/2 (multiplexage sur une connexion, repli HTTP/1.1 keep-alive)
+ * Déclaré dans le contexte principal pour que GymClient et GymClientWithCircuitBreaker partagent le même pool
+ */
+@Configuration
+public class GymHttpClientConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(GymHttpClientConfiguration.class);
+
+    @Value("${gym-service.http-client.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${gym-service.http-client.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${gym-service.http-client.idle-eviction-ms:30000}")
+    private long idleEvictionMs;
+
+    @Value("${gym-service.http-client.time-to-live-ms:900000}")
+    private long timeToLiveMs;
+
+    @Value("${feign.client.config.default.connect-timeout:5000}")
+    private long connectTimeoutMs;
+
+    @Bean
+    @ConditionalOnProperty(name = "gym-service.http-client.type", havingValue = "default", matchIfMissing = true)
+    public Client defaultFeignClient() {
+        logger.info("Client HTTP Feign: HttpURLConnection (sans pool)");
+        return new Client.Default(null, null);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "gym-service.http-client.type", havingValue = "hc5")
+    public PoolingHttpClientConnectionManager gymConnectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnectionsPerRoute)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setTimeToLive(TimeValue.ofMilliseconds(timeToLiveMs))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build())
+            .build();
+        // Connexions disponibles / empruntées / en attente et limites du pool
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "gym-service").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "gym-service.http-client.type", havingValue = "hc5")
+    public CloseableHttpClient gymHttpClient(PoolingHttpClientConnectionManager gymConnectionManager) {
+        return HttpClients.custom()
+            .setConnectionManager(gymConnectionManager)
+            .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionMs))
+            .evictExpiredConnections()
+            // Les nouvelles tentatives sont gérées par GymClientRetryer (budget et échéance)
+            .disableAutomaticRetries()
+            .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "gym-service.http-client.type", havingValue = "hc5")
+    public Client hc5FeignClient(CloseableHttpClient gymHttpClient) {
+        logger.info("Client HTTP Feign: Apache HttpClient 5 (pool {} connexions, {} par route)",
+            maxConnections, maxConnectionsPerRoute);
+        return new ApacheHttp5Client(gymHttpClient);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "gym-service.http-client.type", havingValue = "http2")
+    public Client http2FeignClient() {
+        logger.info("Client HTTP Feign: java.net.http.HttpClient (HTTP/2)");
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+        return new Http2Client(httpClient);
+    }
+}
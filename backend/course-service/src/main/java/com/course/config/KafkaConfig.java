@@ -1,23 +1,45 @@
 package com.course.config;
 
 import com.course.event.CourseEvent;
+import com.course.event.CourseEventAvroCodec;
 import com.course.event.GymEvent;
+import com.course.service.GymEventParallelProcessor;
+import com.course.service.GymReadModelListener;
+import com.course.service.KafkaConsumerService;
+import com.events.codec.EventEncoding;
+import com.events.codec.GymEventRecordCodec;
+import com.events.codec.NegotiatingDeserializer;
+import com.events.codec.NegotiatingSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.annotation.EnableKafkaRetryTopic;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Configuration Kafka pour le Course Service
@@ -25,6 +47,7 @@ import java.util.Map;
  */
 @Configuration
 @EnableKafka
+@EnableKafkaRetryTopic
 public class KafkaConfig {
 
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
@@ -33,6 +56,44 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id:course-service-group}")
     private String groupId;
 
+    // Métriques des clients Kafka (lag par partition, débit, taux de commit, latence d'envoi)
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskExecutors taskExecutors;
+
+    // Encodage des événements publiés; la consommation accepte toujours JSON et Avro
+    @Value("${kafka.events.encoding:JSON}")
+    private EventEncoding eventEncoding;
+
+    // Mode lot du listener gym-events (course.kafka.gym-events.listener-mode=batch)
+    @Value("${course.kafka.gym-events.batch.max-poll-records:500}")
+    private int gymEventsMaxPollRecords;
+
+    @Value("${course.kafka.gym-events.batch.fetch-min-bytes:1}")
+    private int gymEventsFetchMinBytes;
+
+    @Value("${course.kafka.gym-events.batch.fetch-max-wait-ms:500}")
+    private int gymEventsFetchMaxWaitMs;
+
+    // Nombre de consumers (threads de poll) pour gym-events, plafonné par le nombre de partitions
+    @Value("${course.kafka.gym-events.concurrency:1}")
+    private int gymEventsConcurrency;
+
+    // Reprises des événements en échec (topics de retry en modes single et parallel, reprises bloquantes en mode batch)
+    @Value("${course.kafka.gym-events.retry.attempts:4}")
+    private int retryAttempts;
+
+    @Value("${course.kafka.gym-events.retry.initial-delay-ms:1000}")
+    private long retryInitialDelayMs;
+
+    @Value("${course.kafka.gym-events.retry.multiplier:2.0}")
+    private double retryMultiplier;
+
+    @Value("${course.kafka.gym-events.retry.max-delay-ms:30000}")
+    private long retryMaxDelayMs;
+
     // ==================== PRODUCER CONFIGURATION ====================
 
     /**
@@ -43,6 +104,9 @@ public class KafkaConfig {
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.ACKS_CONFIG, "all");
         props.put(ProducerConfig.RETRIES_CONFIG, 3);
+        // Producer idempotent: pas de doublon ni de réordonnancement par partition lors des retries
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
         props.put(ProducerConfig.BATCH_SIZE_CONFIG, 16384);
         props.put(ProducerConfig.LINGER_MS_CONFIG, 1);
         props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, 33554432);
@@ -57,7 +121,7 @@ public class KafkaConfig {
         Map<String, Object> props = getCommonProducerProps();
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        return new DefaultKafkaProducerFactory<>(props);
+        return withMetrics(new DefaultKafkaProducerFactory<>(props));
     }
 
     /**
@@ -74,10 +138,16 @@ public class KafkaConfig {
     @Bean
     public ProducerFactory<String, CourseEvent> courseEventProducerFactory() {
         Map<String, Object> props = getCommonProducerProps();
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
-        return new DefaultKafkaProducerFactory<>(props);
+        return withMetrics(new DefaultKafkaProducerFactory<>(props, new StringSerializer(), courseEventSerializer()));
+    }
+
+    /**
+     * Sérialiseur CourseEvent: encodage choisi par kafka.events.encoding, annoncé dans l'en-tête content-type
+     */
+    @Bean
+    public NegotiatingSerializer<CourseEvent> courseEventSerializer() {
+        JsonSerializer<CourseEvent> jsonSerializer = new JsonSerializer<CourseEvent>().noTypeInfo();
+        return new NegotiatingSerializer<>(eventEncoding, new CourseEventAvroCodec(), jsonSerializer);
     }
 
     /**
@@ -88,6 +158,29 @@ public class KafkaConfig {
         return new KafkaTemplate<>(courseEventProducerFactory());
     }
 
+    /**
+     * KafkaTemplate des topics de retry et de la dead letter gym-events
+     * GymEvent pour les événements en échec, byte[] pour les messages illisibles et les rejeux
+     */
+    @Bean
+    public KafkaTemplate<String, Object> gymEventRetryKafkaTemplate() {
+        Map<String, Object> props = getCommonProducerProps();
+        JsonSerializer<GymEvent> jsonSerializer = new JsonSerializer<GymEvent>().noTypeInfo();
+        DelegatingByTypeSerializer valueSerializer = new DelegatingByTypeSerializer(Map.of(
+            byte[].class, new ByteArraySerializer(),
+            GymEvent.class, new NegotiatingSerializer<>(eventEncoding, gymEventAvroCodec(), jsonSerializer)));
+        return new KafkaTemplate<>(withMetrics(new DefaultKafkaProducerFactory<>(props, new StringSerializer(), valueSerializer)));
+    }
+
+    /**
+     * Publication vers gym-events-dlt (modes batch et parallel)
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer gymEventDeadLetterRecoverer() {
+        return new DeadLetterPublishingRecoverer(gymEventRetryKafkaTemplate(),
+            (record, exception) -> new TopicPartition(KafkaConsumerService.GYM_EVENTS_DLT_TOPIC, -1));
+    }
+
     // ==================== CONSUMER CONFIGURATION ====================
 
     /**
@@ -98,8 +191,8 @@ public class KafkaConfig {
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
-        props.put(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, 1000);
+        // Offsets validés par le container (acquittements, lots) et jamais par l'auto-commit
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         props.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, 30000);
         return props;
     }
@@ -110,9 +203,8 @@ public class KafkaConfig {
     @Bean
     public ConsumerFactory<String, String> stringConsumerFactory() {
         Map<String, Object> props = getCommonConsumerProps();
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        return new DefaultKafkaConsumerFactory<>(props);
+        return withMetrics(new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+            new ErrorHandlingDeserializer<>(new StringDeserializer())));
     }
 
     /**
@@ -124,6 +216,7 @@ public class KafkaConfig {
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(stringConsumerFactory());
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        applyThreadMode(factory, "notifications-consumer-");
         return factory;
     }
 
@@ -133,15 +226,99 @@ public class KafkaConfig {
     @Bean
     public ConsumerFactory<String, GymEvent> gymEventConsumerFactory() {
         Map<String, Object> props = getCommonConsumerProps();
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        
-        // Configuration JsonDeserializer pour GymEvent
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.course.event,com.gym.event");
-        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, GymEvent.class.getName());
-        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
-        
-        return new DefaultKafkaConsumerFactory<>(props);
+        return withMetrics(new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+            new ErrorHandlingDeserializer<>(gymEventDeserializer())));
+    }
+
+    /**
+     * Désérialiseur GymEvent: Avro ou JSON selon l'en-tête content-type (messages sans en-tête = JSON)
+     */
+    @Bean
+    public NegotiatingDeserializer<GymEvent> gymEventDeserializer() {
+        JsonDeserializer<GymEvent> jsonDeserializer = new JsonDeserializer<>(GymEvent.class, false);
+        jsonDeserializer.addTrustedPackages("com.course.event", "com.gym.event");
+        return new NegotiatingDeserializer<>(gymEventAvroCodec(), jsonDeserializer);
+    }
+
+    /**
+     * Consumer Factory pour le listener gym-events en mode lot
+     * Commit automatique désactivé: les offsets sont validés par le container une fois par lot
+     */
+    @Bean
+    public ConsumerFactory<String, GymEvent> gymEventBatchConsumerFactory() {
+        Map<String, Object> props = getCommonConsumerProps();
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, gymEventsMaxPollRecords);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, gymEventsFetchMinBytes);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, gymEventsFetchMaxWaitMs);
+        // Un message illisible arrive avec une valeur null (en-tête d'exception) au lieu de bloquer le poll
+        return withMetrics(new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+            new ErrorHandlingDeserializer<>(gymEventDeserializer())));
+    }
+
+    /**
+     * Listener Container Factory pour GymEvent en mode lot (List<ConsumerRecord>)
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, GymEvent> gymEventBatchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, GymEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(gymEventBatchConsumerFactory());
+        factory.setConcurrency(gymEventsConcurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        // Reprises bloquantes du lot puis dead letter (le message fautif seul si BatchListenerFailedException)
+        factory.setCommonErrorHandler(new DefaultErrorHandler(gymEventDeadLetterRecoverer(), retryBackOff()));
+        applyThreadMode(factory, "gym-events-batch-consumer-");
+        return factory;
+    }
+
+    /**
+     * Listener Container Factory pour GymEvent en mode parallèle ordonné par salle
+     * Les offsets sont validés par GymEventParallelProcessor (commitSync), jamais par le container
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, GymEvent> gymEventParallelKafkaListenerContainerFactory(
+            GymEventParallelProcessor parallelProcessor) {
+        ConcurrentKafkaListenerContainerFactory<String, GymEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(gymEventBatchConsumerFactory());
+        factory.setConcurrency(gymEventsConcurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setConsumerRebalanceListener(parallelProcessor);
+        factory.getContainerProperties().setIdleEventInterval(1000L);
+        applyThreadMode(factory, "gym-events-parallel-consumer-");
+        return factory;
+    }
+
+    /**
+     * Listener Container Factory des reprises gym-events-retry-N en mode parallèle
+     * Offset validé après chaque message; si l'envoi vers la reprise suivante échoue, le message est
+     * rejoué indéfiniment (jamais ignoré): son offset n'est validé qu'une fois l'envoi confirmé
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, GymEvent> gymEventParallelRetryKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, GymEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(gymEventParallelRetryConsumerFactory());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+            new FixedBackOff(retryInitialDelayMs, FixedBackOff.UNLIMITED_ATTEMPTS)));
+        applyThreadMode(factory, "gym-events-retry-consumer-");
+        return factory;
+    }
+
+    /**
+     * Consumer Factory des reprises en mode parallèle
+     * Lecture à partir de la fin au premier démarrage: les messages laissés par le mode single
+     * sur les topics de retry ne sont pas rejoués
+     */
+    @Bean
+    public ConsumerFactory<String, GymEvent> gymEventParallelRetryConsumerFactory() {
+        Map<String, Object> props = getCommonConsumerProps();
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        return withMetrics(new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+            new ErrorHandlingDeserializer<>(gymEventDeserializer())));
     }
 
     /**
@@ -152,7 +329,90 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, GymEvent> factory = 
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(gymEventConsumerFactory());
+        factory.setConcurrency(gymEventsConcurrency);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        applyThreadMode(factory, "gym-events-consumer-");
+        return factory;
+    }
+
+    /**
+     * Consumer Factory de la réplique locale des salles (GymReadModelListener)
+     * Groupe propre à chaque instance: chacune lit toutes les partitions de gym-events, à partir de la fin
+     * (l'état antérieur vient de l'instantané HTTP chargé au démarrage), sans jamais valider d'offset
+     */
+    @Bean
+    public ConsumerFactory<String, GymEvent> gymReadModelConsumerFactory() {
+        Map<String, Object> props = getCommonConsumerProps();
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId + "-replica-" + UUID.randomUUID());
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        return withMetrics(new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+            new ErrorHandlingDeserializer<>(gymEventDeserializer())));
+    }
+
+    /**
+     * Listener Container Factory de la réplique locale des salles
+     * Un seul consumer (toutes les partitions); AckMode MANUAL sans acquittement: aucun commit
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, GymEvent> gymReadModelKafkaListenerContainerFactory(
+            GymReadModelListener gymReadModelListener) {
+        ConcurrentKafkaListenerContainerFactory<String, GymEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(gymReadModelConsumerFactory());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setConsumerRebalanceListener(gymReadModelListener);
+        applyThreadMode(factory, "gym-read-model-consumer-");
         return factory;
     }
-}
\ No newline at end of file
+
+    /**
+     * Consumer Factory de lecture de gym-events-dlt pour le rejeu (valeurs brutes, groupe dédié)
+     */
+    @Bean
+    public ConsumerFactory<String, byte[]> deadLetterConsumerFactory() {
+        Map<String, Object> props = getCommonConsumerProps();
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId + "-dlt-replay");
+        return withMetrics(new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new ByteArrayDeserializer()));
+    }
+
+    private ExponentialBackOffWithMaxRetries retryBackOff() {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(Math.max(0, retryAttempts - 1));
+        backOff.setInitialInterval(retryInitialDelayMs);
+        backOff.setMultiplier(retryMultiplier);
+        backOff.setMaxInterval(retryMaxDelayMs);
+        return backOff;
+    }
+
+    /**
+     * Threads consommateurs virtuels si spring.threads.virtual.enabled (Java 21)
+     */
+    private void applyThreadMode(ConcurrentKafkaListenerContainerFactory<?, ?> factory, String threadPrefix) {
+        SimpleAsyncTaskExecutor listenerTaskExecutor = taskExecutors.listenerTaskExecutor(threadPrefix);
+        if (listenerTaskExecutor != null) {
+            factory.getContainerProperties().setListenerTaskExecutor(listenerTaskExecutor);
+        }
+    }
+
+    /**
+     * Expose les métriques du client Kafka (kafka.producer.*) dans Micrometer
+     */
+    private <K, V> DefaultKafkaProducerFactory<K, V> withMetrics(DefaultKafkaProducerFactory<K, V> factory) {
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
+    }
+
+    /**
+     * Expose les métriques du client Kafka (kafka.consumer.*, dont records-lag-max par partition) dans Micrometer
+     */
+    private <K, V> DefaultKafkaConsumerFactory<K, V> withMetrics(DefaultKafkaConsumerFactory<K, V> factory) {
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
+    /**
+     * Conversion Avro de GymEvent (mapping partagé events-common)
+     */
+    private GymEventRecordCodec<GymEvent, GymEvent.EventType> gymEventAvroCodec() {
+        return new GymEventRecordCodec<>(GymEvent::new, GymEvent.EventType.class);
+    }
+}
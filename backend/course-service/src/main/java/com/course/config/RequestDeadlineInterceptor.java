@@ -0,0 +1,48 @@
+package com.course.config;
+
+import com.course.client.RequestDeadline;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Fixe l'échéance de chaque requête traitée par les contrôleurs (course.request.deadline-ms)
+ * Une échéance plus proche reçue de l'appelant (en-tête X-Request-Deadline-Ms) est conservée
+ */
+@Component
+public class RequestDeadlineInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestDeadlineInterceptor.class);
+
+    @Value("${course.request.deadline-ms:5000}")
+    private long deadlineMs;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        long timeoutMs = deadlineMs;
+        String header = request.getHeader(RequestDeadline.HEADER);
+        if (header != null) {
+            try {
+                timeoutMs = Math.min(timeoutMs, Long.parseLong(header.trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("En-tête {} invalide ignoré: {}", RequestDeadline.HEADER, header);
+            }
+        }
+        if (timeoutMs <= 0) {
+            logger.warn("Requête {} abandonnée: échéance déjà dépassée", request.getRequestURI());
+            response.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT, "Échéance dépassée");
+            return false;
+        }
+        RequestDeadline.startIn(timeoutMs);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestDeadline.clear();
+    }
+}
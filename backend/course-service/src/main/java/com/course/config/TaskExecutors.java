@@ -0,0 +1,78 @@
+package com.course.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fabrique des threads des pools applicatifs (appels Gym Service, workers Kafka, rafraîchissements)
+ * selon spring.threads.virtual.enabled: threads virtuels (Java 21, profil Maven java21) ou threads plateforme
+ */
+@Component
+public class TaskExecutors {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Fabrique de threads nommés prefix + numéro (threads plateforme daemon ou threads virtuels)
+     */
+    public ThreadFactory threadFactory(String prefix) {
+        if (virtualThreads) {
+            return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Pool de platformThreads threads plateforme, ou un thread virtuel par tâche (pas de pool à dimensionner)
+     */
+    public ExecutorService newExecutor(String prefix, int platformThreads) {
+        if (virtualThreads) {
+            // Aucun thread conservé: chaque tâche démarre un thread virtuel qui se termine avec elle
+            return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), threadFactory(prefix));
+        }
+        return Executors.newFixedThreadPool(platformThreads, threadFactory(prefix));
+    }
+
+    /**
+     * Pool borné à maxThreads tâches simultanées, sans file d'attente: au-delà, la soumission est refusée
+     * (RejectedExecutionException) au lieu de s'accumuler; threads virtuels ou plateforme selon le mode
+     */
+    public ThreadPoolExecutor newBoundedExecutor(String prefix, int maxThreads) {
+        return new ThreadPoolExecutor(virtualThreads ? 0 : maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), threadFactory(prefix));
+    }
+
+    /**
+     * Exécuteur des threads consommateurs des conteneurs @KafkaListener
+     * null en mode plateforme: le conteneur garde son exécuteur par défaut
+     */
+    public SimpleAsyncTaskExecutor listenerTaskExecutor(String prefix) {
+        if (!virtualThreads) {
+            return null;
+        }
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefix);
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
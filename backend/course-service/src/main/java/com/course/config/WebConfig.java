@@ -0,0 +1,24 @@
+package com.course.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration Spring MVC
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private RequestDeadlineInterceptor requestDeadlineInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // L'export NDJSON est un flux long sans appel au Gym Service: pas d'échéance
+        registry.addInterceptor(requestDeadlineInterceptor)
+            .addPathPatterns("/api/courses/**")
+            .excludePathPatterns("/api/courses/export");
+    }
+}
@@ -1,20 +1,31 @@
 package com.course.controller;
 
+import com.course.client.GymServiceUnavailableException;
 import com.course.dto.CourseDTO;
+import com.course.dto.CourseSearchCriteria;
 import com.course.dto.CourseWithGymDTO;
 import com.course.dto.GymDTO;
+import com.course.dto.GymListSnapshot;
+import com.course.service.CacheStatisticsService;
 import com.course.service.CourseService;
 import com.course.service.GymIntegrationService;
+import com.course.service.UnknownGymsException;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/courses")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = {"X-Data-Stale", "Age"})
 public class CourseController {
 
     @Autowired
@@ -23,11 +34,56 @@ public class CourseController {
     @Autowired
     private GymIntegrationService gymIntegrationService;
 
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
     @PostMapping
     public ResponseEntity<CourseDTO> create(@Valid @RequestBody CourseDTO dto) {
         return ResponseEntity.ok(courseService.create(dto));
     }
 
+    /**
+     * Création groupée de cours (import d'une nouvelle salle)
+     * 400 si le lot est trop grand ou référence une salle inconnue (missingGymIds), 503 si les salles
+     * n'ont pas pu être vérifiées
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createAll(@RequestBody List<@Valid CourseDTO> dtos) {
+        try {
+            return ResponseEntity.ok(courseService.createAll(dtos));
+        } catch (RuntimeException e) {
+            return batchError(e);
+        }
+    }
+
+    /**
+     * Mise à jour groupée de cours (chaque élément doit porter son ID)
+     * 400 si le lot est trop grand, contient un cours sans ID ou inconnu, ou référence une salle inconnue,
+     * 503 si les salles n'ont pas pu être vérifiées
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<?> updateAll(@RequestBody List<@Valid CourseDTO> dtos) {
+        try {
+            return ResponseEntity.ok(courseService.updateAll(dtos));
+        } catch (RuntimeException e) {
+            return batchError(e);
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> batchError(RuntimeException e) {
+        if (e instanceof UnknownGymsException unknownGyms) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage(), "missingGymIds", unknownGyms.getMissingGymIds()));
+        }
+        if (e instanceof IllegalArgumentException) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        if (e instanceof GymServiceUnavailableException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+        throw e;
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CourseDTO> getById(@PathVariable Long id) {
         return ResponseEntity.ok(courseService.getById(id));
@@ -38,6 +94,69 @@ public class CourseController {
         return ResponseEntity.ok(courseService.getAll());
     }
 
+    /**
+     * Liste paginée des cours (pagination keyset par curseur)
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> getPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "id") String sort) {
+        try {
+            return ResponseEntity.ok(courseService.getPage(cursor, size, sort));
+        } catch (IllegalArgumentException e) {
+            return pageError(e);
+        }
+    }
+
+    /**
+     * Recherche paginée des cours par niveau, instructeur, salle, prix et nombre de participants
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String instructor,
+            @RequestParam(required = false) String gymId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer minParticipants,
+            @RequestParam(required = false) Integer maxParticipants,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "id") String sort) {
+        CourseSearchCriteria criteria = new CourseSearchCriteria();
+        criteria.setLevel(level);
+        criteria.setInstructor(instructor);
+        criteria.setGymId(gymId);
+        criteria.setMinPrice(minPrice);
+        criteria.setMaxPrice(maxPrice);
+        criteria.setMinParticipants(minParticipants);
+        criteria.setMaxParticipants(maxParticipants);
+        try {
+            return ResponseEntity.ok(courseService.search(criteria, cursor, size, sort));
+        } catch (IllegalArgumentException e) {
+            return pageError(e);
+        }
+    }
+
+    /**
+     * Curseur illisible, clé de tri non supportée ou curseur d'un autre tri: 400 avec le message
+     */
+    private ResponseEntity<Map<String, Object>> pageError(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    /**
+     * Export en flux de tous les cours au format NDJSON (une ligne JSON par cours)
+     */
+    @GetMapping("/export")
+    public void exportAll(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"courses.ndjson\"");
+        courseService.exportAll(response.getOutputStream());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<CourseDTO> update(@PathVariable Long id, @Valid @RequestBody CourseDTO dto) {
         return ResponseEntity.ok(courseService.update(id, dto));
@@ -57,6 +176,21 @@ public class CourseController {
         return ResponseEntity.ok(courseService.getAllCoursesWithGymInfo());
     }
 
+    /**
+     * Page de cours enrichis avec les informations des salles
+     */
+    @GetMapping("/with-gym-info/page")
+    public ResponseEntity<?> getCoursesWithGymInfoPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "id") String sort) {
+        try {
+            return ResponseEntity.ok(courseService.getCoursesWithGymInfoPage(cursor, size, sort));
+        } catch (IllegalArgumentException e) {
+            return pageError(e);
+        }
+    }
+
     /**
      * Récupère les cours d'une salle spécifique par ID
      */
@@ -65,6 +199,22 @@ public class CourseController {
         return ResponseEntity.ok(courseService.getCoursesByGymId(gymId));
     }
 
+    /**
+     * Page de cours d'une salle spécifique par ID
+     */
+    @GetMapping("/by-gym/{gymId}/page")
+    public ResponseEntity<?> getCoursesByGymPage(
+            @PathVariable String gymId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "id") String sort) {
+        try {
+            return ResponseEntity.ok(courseService.getCoursesByGymIdPage(gymId, cursor, size, sort));
+        } catch (IllegalArgumentException e) {
+            return pageError(e);
+        }
+    }
+
     /**
      * Récupère les cours d'une salle spécifique par nom
      */
@@ -75,10 +225,18 @@ public class CourseController {
 
     /**
      * Récupère toutes les salles disponibles (pour les formulaires)
+     * Une copie périmée (Gym Service indisponible ou rafraîchissement en cours) est signalée
+     * par X-Data-Stale: true et son âge dans l'en-tête Age
      */
     @GetMapping("/available-gyms")
     public ResponseEntity<List<GymDTO>> getAvailableGyms() {
-        return ResponseEntity.ok(courseService.getAvailableGyms());
+        GymListSnapshot snapshot = courseService.getAvailableGyms();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .header("X-Data-Stale", String.valueOf(snapshot.isStale()));
+        if (snapshot.getFetchedAt() != null) {
+            response.header(HttpHeaders.AGE, String.valueOf(snapshot.getAgeSeconds()));
+        }
+        return response.body(snapshot.getGyms());
     }
 
     /**
@@ -105,6 +263,14 @@ public class CourseController {
         return ResponseEntity.ok(gymIntegrationService.getCircuitBreakerState());
     }
 
+    /**
+     * Statistiques du cache de second niveau Hibernate (Course)
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getCourseCacheStatistics());
+    }
+
     /**
      * Obtient les métriques du Circuit Breaker
      */
@@ -0,0 +1,46 @@
+package com.course.controller;
+
+import com.course.service.DeadLetterReplayService;
+import com.course.service.OutboxRelay;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Administration des dead letters Kafka du Course Service
+ */
+@RestController
+@RequestMapping("/api/kafka/dead-letters")
+@CrossOrigin(origins = "*")
+public class DeadLetterController {
+
+    private static final int MAX_REPLAY = 10000;
+
+    @Autowired
+    private DeadLetterReplayService deadLetterReplayService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    /**
+     * Rejouer les événements GYM en dead letter vers gym-events
+     */
+    @PostMapping("/gym-events/replay")
+    public ResponseEntity<Map<String, Object>> replayGymEvents(@RequestParam(defaultValue = "100") int max) {
+        if (max < 1 || max > MAX_REPLAY) {
+            return ResponseEntity.badRequest().body(Map.of("error", "max doit être compris entre 1 et " + MAX_REPLAY));
+        }
+        int replayed = deadLetterReplayService.replayGymEvents(max);
+        return ResponseEntity.ok(Map.of("replayed", replayed));
+    }
+
+    /**
+     * Remettre en attente les messages outbox écartés par le relais (course.outbox.parked)
+     */
+    @PostMapping("/outbox/requeue")
+    public ResponseEntity<Map<String, Object>> requeueParkedOutboxEvents() {
+        return ResponseEntity.ok(Map.of("requeued", outboxRelay.requeueParked()));
+    }
+}
@@ -1,5 +1,6 @@
 package com.course.dto;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 
@@ -21,6 +22,7 @@ public class CourseDTO {
     private Integer maxParticipants;
     
     @Positive(message = "Le prix doit être positif")
+    @Digits(integer = 36, fraction = 2, message = "Le prix doit avoir au plus 2 décimales")
     private BigDecimal price;
     
     private String schedule;
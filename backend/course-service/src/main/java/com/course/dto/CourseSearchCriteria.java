@@ -0,0 +1,54 @@
+package com.course.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Critères de recherche des cours (tous optionnels, combinés par ET)
+ */
+public class CourseSearchCriteria {
+    private String level;
+    private String instructor;
+    private String gymId;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minParticipants;
+    private Integer maxParticipants;
+
+    // Constructeurs
+    public CourseSearchCriteria() {}
+
+    // Getters et Setters
+    public String getLevel() { return level; }
+    public void setLevel(String level) { this.level = level; }
+
+    public String getInstructor() { return instructor; }
+    public void setInstructor(String instructor) { this.instructor = instructor; }
+
+    public String getGymId() { return gymId; }
+    public void setGymId(String gymId) { this.gymId = gymId; }
+
+    public BigDecimal getMinPrice() { return minPrice; }
+    public void setMinPrice(BigDecimal minPrice) { this.minPrice = minPrice; }
+
+    public BigDecimal getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(BigDecimal maxPrice) { this.maxPrice = maxPrice; }
+
+    public Integer getMinParticipants() { return minParticipants; }
+    public void setMinParticipants(Integer minParticipants) { this.minParticipants = minParticipants; }
+
+    public Integer getMaxParticipants() { return maxParticipants; }
+    public void setMaxParticipants(Integer maxParticipants) { this.maxParticipants = maxParticipants; }
+
+    @Override
+    public String toString() {
+        return "CourseSearchCriteria{" +
+                "level='" + level + '\'' +
+                ", instructor='" + instructor + '\'' +
+                ", gymId='" + gymId + '\'' +
+                ", minPrice=" + minPrice +
+                ", maxPrice=" + maxPrice +
+                ", minParticipants=" + minParticipants +
+                ", maxParticipants=" + maxParticipants +
+                '}';
+    }
+}
@@ -18,6 +18,8 @@ public class CourseWithGymDTO {
     private String gymName;
     private String gymLocation;
     private Integer gymCapacity;
+    // false si les infos de la salle n'ont pas pu être récupérées (service indisponible, échéance atteinte)
+    private boolean gymResolved = true;
 
     // Constructeurs
     public CourseWithGymDTO() {}
@@ -61,4 +63,7 @@ public class CourseWithGymDTO {
 
     public Integer getGymCapacity() { return gymCapacity; }
     public void setGymCapacity(Integer gymCapacity) { this.gymCapacity = gymCapacity; }
+
+    public boolean isGymResolved() { return gymResolved; }
+    public void setGymResolved(boolean gymResolved) { this.gymResolved = gymResolved; }
 }
\ No newline at end of file
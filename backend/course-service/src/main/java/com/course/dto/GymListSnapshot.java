@@ -0,0 +1,34 @@
+package com.course.dto;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Liste des salles accompagnée de sa fraîcheur
+ * fetchedAt est null si aucune copie n'a encore pu être obtenue du Gym Service
+ */
+public class GymListSnapshot {
+    private final List<GymDTO> gyms;
+    private final Instant fetchedAt;
+    private final boolean stale;
+
+    public GymListSnapshot(List<GymDTO> gyms, Instant fetchedAt, boolean stale) {
+        this.gyms = gyms;
+        this.fetchedAt = fetchedAt;
+        this.stale = stale;
+    }
+
+    public List<GymDTO> getGyms() { return gyms; }
+
+    public Instant getFetchedAt() { return fetchedAt; }
+
+    public boolean isStale() { return stale; }
+
+    /**
+     * Âge de la copie en secondes (0 si inconnu)
+     */
+    public long getAgeSeconds() {
+        return fetchedAt != null ? Math.max(0, Duration.between(fetchedAt, Instant.now()).getSeconds()) : 0;
+    }
+}
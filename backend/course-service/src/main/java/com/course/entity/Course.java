@@ -1,41 +1,71 @@
 package com.course.entity;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "courses")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "courses", indexes = {
+    @Index(name = "idx_courses_gym_id", columnList = "gym_id"),
+    @Index(name = "idx_courses_gym_name", columnList = "gym_name"),
+    @Index(name = "idx_courses_level_price", columnList = "level, price"),
+    @Index(name = "idx_courses_instructor", columnList = "instructor"),
+    @Index(name = "idx_courses_price", columnList = "price"),
+    @Index(name = "idx_courses_max_participants", columnList = "max_participants"),
+    @Index(name = "idx_courses_title", columnList = "title")
+})
 public class Course {
+    // Générateur par table (MySQL n'a pas de séquences): les IDs sont réservés par blocs,
+    // ce qui permet à Hibernate de regrouper les INSERT en lots JDBC (impossible avec IDENTITY)
+    public static final String ID_TABLE = "course_id_sequence";
+    public static final String ID_SEGMENT = "courses";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "course_id_generator")
+    @TableGenerator(name = "course_id_generator", table = ID_TABLE,
+        pkColumnName = "sequence_name", valueColumnName = "next_val",
+        pkColumnValue = ID_SEGMENT, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank
+    @Column(name = "title")
     private String title;
 
     private String description;
 
+    @Column(name = "instructor")
     private String instructor;
 
     @Positive
     private Integer duration; // en minutes
 
     @Positive
+    @Column(name = "max_participants")
     private Integer maxParticipants;
 
     @Positive
+    @Digits(integer = 36, fraction = 2)
+    @Column(name = "price")
     private BigDecimal price;
 
     private String schedule; // ex: "Lundi 18h00"
 
+    @Column(name = "level")
     private String level; // Débutant, Intermédiaire, Avancé
 
+    @Column(name = "gym_id")
     private String gymId; // ID de la salle de sport
 
+    @Column(name = "gym_name")
     private String gymName; // NOM de la salle de sport
 
     // Constructeurs
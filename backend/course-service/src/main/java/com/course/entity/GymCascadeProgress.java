@@ -0,0 +1,75 @@
+package com.course.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Avancement de la désassignation des cours d'une salle supprimée
+ * Mis à jour à chaque lot, permet de reprendre la cascade après un redémarrage
+ */
+@Entity
+@Table(name = "gym_cascade_progress", indexes = {
+    @Index(name = "idx_gym_cascade_status", columnList = "status")
+})
+public class GymCascadeProgress {
+
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED
+    }
+
+    @Id
+    @Column(name = "gym_id")
+    private String gymId;
+
+    @Column(name = "gym_name")
+    private String gymName;
+
+    // Dernier ID de cours traité (curseur keyset)
+    @Column(name = "last_course_id", nullable = false)
+    private Long lastCourseId = 0L;
+
+    @Column(name = "processed_count", nullable = false)
+    private Long processedCount = 0L;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status = Status.IN_PROGRESS;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public GymCascadeProgress() {}
+
+    public GymCascadeProgress(String gymId, String gymName) {
+        this.gymId = gymId;
+        this.gymName = gymName;
+        this.startedAt = LocalDateTime.now();
+        this.updatedAt = this.startedAt;
+    }
+
+    public String getGymId() { return gymId; }
+    public void setGymId(String gymId) { this.gymId = gymId; }
+
+    public String getGymName() { return gymName; }
+    public void setGymName(String gymName) { this.gymName = gymName; }
+
+    public Long getLastCourseId() { return lastCourseId; }
+    public void setLastCourseId(Long lastCourseId) { this.lastCourseId = lastCourseId; }
+
+    public Long getProcessedCount() { return processedCount; }
+    public void setProcessedCount(Long processedCount) { this.processedCount = processedCount; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,104 @@
+package com.course.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Message en attente de publication Kafka (pattern transactional outbox)
+ * Écrit dans la même transaction que la modification du cours, puis relayé par OutboxRelay
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    // Recherche des clés bloquées par le relais (message écarté ou en cours d'envoi)
+    @Index(name = "idx_outbox_topic_key", columnList = "topic, message_key")
+})
+public class OutboxEvent {
+
+    public enum PayloadType {
+        COURSE_EVENT,   // CourseEvent sérialisé en JSON
+        STRING          // Message texte brut
+    }
+
+    // IDENTITY: les IDs suivent l'ordre d'allocation, pas l'ordre de commit. Une transaction concurrente
+    // peut valider un ID inférieur après qu'un ID supérieur a été relayé: l'ordre par clé n'est conservé
+    // que pour les messages d'un même cours, dont les transactions sont sérialisées par le verrou de ligne
+    // du cours (create/update/delete). Pour les autres clés (notifications "system", gymId), l'ordre
+    // entre transactions concurrentes n'est pas garanti.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "topic", nullable = false)
+    private String topic;
+
+    @Column(name = "message_key")
+    private String messageKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payload_type", nullable = false, length = 20)
+    private PayloadType payloadType;
+
+    @Lob
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Nombre d'envois en échec
+    @Column(name = "attempts")
+    private Integer attempts;
+
+    // Réservé par un relais (ou nouvel essai différé) jusqu'à cette date
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    // Écarté après un échec non récupérable ou trop de tentatives (hors relais, voir requeueParked)
+    // Bloque les messages suivants de la même clé jusqu'à sa remise en attente
+    @Column(name = "parked_at")
+    private LocalDateTime parkedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    public OutboxEvent() {}
+
+    public OutboxEvent(String topic, String messageKey, PayloadType payloadType, String payload) {
+        this.topic = topic;
+        this.messageKey = messageKey;
+        this.payloadType = payloadType;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTopic() { return topic; }
+    public void setTopic(String topic) { this.topic = topic; }
+
+    public String getMessageKey() { return messageKey; }
+    public void setMessageKey(String messageKey) { this.messageKey = messageKey; }
+
+    public PayloadType getPayloadType() { return payloadType; }
+    public void setPayloadType(PayloadType payloadType) { this.payloadType = payloadType; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public int getAttempts() { return attempts != null ? attempts : 0; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(LocalDateTime leaseUntil) { this.leaseUntil = leaseUntil; }
+
+    public LocalDateTime getParkedAt() { return parkedAt; }
+    public void setParkedAt(LocalDateTime parkedAt) { this.parkedAt = parkedAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
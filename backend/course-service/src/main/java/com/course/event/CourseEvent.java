@@ -11,7 +11,16 @@ public class CourseEvent {
         COURSE_DELETED,
         COURSE_CAPACITY_CHANGED,
         COURSE_ASSIGNED_TO_GYM,
-        COURSE_UNASSIGNED_FROM_GYM
+        COURSE_UNASSIGNED_FROM_GYM,
+        COURSE_CHANGED,         // Événement composite: une opération métier = un seul enregistrement
+        COURSES_UNASSIGNED_FROM_GYM  // Désassignation en masse d'une plage de cours (salle supprimée)
+    }
+
+    // Nature de l'opération portée par un événement COURSE_CHANGED
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
     }
     
     private Long courseId;
@@ -26,6 +35,16 @@ public class CourseEvent {
     private LocalDateTime timestamp;
     private String description;
 
+    // Champs de l'événement COURSE_CHANGED: assignation de salle avant l'opération
+    private ChangeType changeType;
+    private String previousGymId;
+    private String previousGymName;
+
+    // Champs de l'événement COURSES_UNASSIGNED_FROM_GYM: plage d'IDs désassignés (bornes incluses)
+    private Long courseIdFrom;
+    private Long courseIdTo;
+    private Integer courseCount;
+
     // Constructeurs
     public CourseEvent() {
         this.timestamp = LocalDateTime.now();
@@ -72,6 +91,24 @@ public class CourseEvent {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
+    public ChangeType getChangeType() { return changeType; }
+    public void setChangeType(ChangeType changeType) { this.changeType = changeType; }
+
+    public String getPreviousGymId() { return previousGymId; }
+    public void setPreviousGymId(String previousGymId) { this.previousGymId = previousGymId; }
+
+    public String getPreviousGymName() { return previousGymName; }
+    public void setPreviousGymName(String previousGymName) { this.previousGymName = previousGymName; }
+
+    public Long getCourseIdFrom() { return courseIdFrom; }
+    public void setCourseIdFrom(Long courseIdFrom) { this.courseIdFrom = courseIdFrom; }
+
+    public Long getCourseIdTo() { return courseIdTo; }
+    public void setCourseIdTo(Long courseIdTo) { this.courseIdTo = courseIdTo; }
+
+    public Integer getCourseCount() { return courseCount; }
+    public void setCourseCount(Integer courseCount) { this.courseCount = courseCount; }
+
     @Override
     public String toString() {
         return "CourseEvent{" +
@@ -0,0 +1,87 @@
+package com.course.event;
+
+import com.events.avro.CourseChangeType;
+import com.events.avro.CourseEventRecord;
+import com.events.avro.CourseEventType;
+import com.events.codec.AvroCodec;
+import org.apache.avro.message.BinaryMessageDecoder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversion CourseEvent <-> CourseEventRecord (schéma partagé events-common)
+ */
+public class CourseEventAvroCodec implements AvroCodec<CourseEvent> {
+
+    // Décodeur connaissant toutes les versions publiées du schéma (messages écrits avant une évolution)
+    private static final BinaryMessageDecoder<CourseEventRecord> DECODER =
+        CourseEventRecord.createDecoder(AvroCodec.releasedSchemas("CourseEventRecord"));
+
+    // Échelle du type decimal "price" dans CourseEventRecord.avsc (validée en entrée par @Digits sur le prix)
+    private static final int PRICE_SCALE = 2;
+
+    @Override
+    public byte[] encode(CourseEvent event) throws IOException {
+        CourseEventRecord record = CourseEventRecord.newBuilder()
+            .setCourseId(event.getCourseId())
+            .setCourseName(event.getCourseName())
+            .setInstructor(event.getInstructor())
+            .setGymId(event.getGymId())
+            .setGymName(event.getGymName())
+            .setMaxParticipants(event.getMaxParticipants())
+            .setPrice(toPriceScale(event.getPrice()))
+            .setLevel(event.getLevel())
+            .setEventType(event.getEventType() != null ? CourseEventType.valueOf(event.getEventType().name()) : null)
+            .setTimestamp(event.getTimestamp())
+            .setDescription(event.getDescription())
+            .setChangeType(event.getChangeType() != null ? CourseChangeType.valueOf(event.getChangeType().name()) : null)
+            .setPreviousGymId(event.getPreviousGymId())
+            .setPreviousGymName(event.getPreviousGymName())
+            .setCourseIdFrom(event.getCourseIdFrom())
+            .setCourseIdTo(event.getCourseIdTo())
+            .setCourseCount(event.getCourseCount())
+            .build();
+        return AvroCodec.toArray(record.toByteBuffer());
+    }
+
+    @Override
+    public CourseEvent decode(byte[] data) throws IOException {
+        CourseEventRecord record = DECODER.decode(data);
+        CourseEvent event = new CourseEvent();
+        event.setCourseId(record.getCourseId());
+        event.setCourseName(record.getCourseName());
+        event.setInstructor(record.getInstructor());
+        event.setGymId(record.getGymId());
+        event.setGymName(record.getGymName());
+        event.setMaxParticipants(record.getMaxParticipants());
+        event.setPrice(record.getPrice());
+        event.setLevel(record.getLevel());
+        event.setEventType(record.getEventType() != null ? CourseEvent.EventType.valueOf(record.getEventType().name()) : null);
+        event.setTimestamp(record.getTimestamp());
+        event.setDescription(record.getDescription());
+        event.setChangeType(record.getChangeType() != null ? CourseEvent.ChangeType.valueOf(record.getChangeType().name()) : null);
+        event.setPreviousGymId(record.getPreviousGymId());
+        event.setPreviousGymName(record.getPreviousGymName());
+        event.setCourseIdFrom(record.getCourseIdFrom());
+        event.setCourseIdTo(record.getCourseIdTo());
+        event.setCourseCount(record.getCourseCount());
+        return event;
+    }
+
+    /**
+     * Prix ramené à l'échelle du schéma sans arrondi: un prix à plus de 2 décimales est refusé
+     */
+    private static BigDecimal toPriceScale(BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        try {
+            return price.setScale(PRICE_SCALE, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                "Prix " + price.toPlainString() + " non représentable: " + PRICE_SCALE + " décimales au plus");
+        }
+    }
+}
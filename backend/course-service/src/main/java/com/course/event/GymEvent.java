@@ -1,5 +1,6 @@
 package com.course.event;
 
+import com.events.codec.GymEventFields;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
@@ -10,7 +11,7 @@ import java.time.LocalDateTime;
  * Copie locale pour la désérialisation Kafka
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
-public class GymEvent {
+public class GymEvent implements GymEventFields<GymEvent.EventType> {
     
     public enum EventType {
         GYM_CREATED,
@@ -21,6 +22,7 @@ public class GymEvent {
     
     private String gymId;
     private String gymName;
+    private String gymLocation;
     private String gymEmail;
     private Integer capacity;
     private EventType eventType;
@@ -49,6 +51,9 @@ public class GymEvent {
     public String getGymName() { return gymName; }
     public void setGymName(String gymName) { this.gymName = gymName; }
 
+    public String getGymLocation() { return gymLocation; }
+    public void setGymLocation(String gymLocation) { this.gymLocation = gymLocation; }
+
     public String getGymEmail() { return gymEmail; }
     public void setGymEmail(String gymEmail) { this.gymEmail = gymEmail; }
 
@@ -0,0 +1,57 @@
+package com.course.repository;
+
+import com.course.entity.Course;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Curseur de pagination keyset: position (clé de tri, valeur, id) du dernier cours retourné
+ * Encodé en Base64 URL pour être transmis tel quel par les clients (jeton opaque)
+ */
+public class CourseCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final CourseSortKey sortKey;
+    private final Long lastId;
+    private final String sortValue;
+
+    public CourseCursor(CourseSortKey sortKey, Long lastId, String sortValue) {
+        this.sortKey = sortKey;
+        this.lastId = lastId;
+        this.sortValue = sortValue;
+    }
+
+    /**
+     * Construit le curseur pointant après le cours donné
+     */
+    public static CourseCursor after(Course course, CourseSortKey sortKey) {
+        return new CourseCursor(sortKey, course.getId(), sortKey.extractValue(course));
+    }
+
+    public CourseSortKey getSortKey() { return sortKey; }
+
+    public Long getLastId() { return lastId; }
+
+    public String getSortValue() { return sortValue; }
+
+    public String encode() {
+        String raw = sortKey.name() + SEPARATOR + lastId + (sortValue != null ? SEPARATOR + sortValue : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CourseCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            return new CourseCursor(
+                CourseSortKey.valueOf(parts[0]),
+                Long.valueOf(parts[1]),
+                parts.length == 3 ? parts[2] : null
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide: " + token, e);
+        }
+    }
+}
@@ -1,30 +1,65 @@
 package com.course.repository;
 
 import com.course.entity.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface CourseRepository extends JpaRepository<Course, Long> {
+public interface CourseRepository extends JpaRepository<Course, Long>, CourseRepositoryCustom {
+    // Requête cachée (cache de requêtes Hibernate, si course.cache.enabled=true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Course> findByGymId(String gymId);
     List<Course> findByInstructor(String instructor);
     List<Course> findByLevel(String level);
     List<Course> findByGymName(String gymName);
+
+    // Lecture en flux de tous les cours (export): curseur JDBC forward-only en lecture seule
+    // fetchSize = Integer.MIN_VALUE active le streaming ligne à ligne du driver MySQL
+    // Doit être consommé dans une transaction et le Stream fermé après usage
+    // CacheMode IGNORE: l'export ne lit ni n'alimente le cache de second niveau (pas d'éviction des entrées utiles)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT c FROM Course c ORDER BY c.id")
+    Stream<Course> streamAllOrderById();
     
+    // Les mises à jour JPQL en masse invalident la région de cache Course et les requêtes
+    // cachées portant sur la table courses (BulkOperationCleanupAction de Hibernate)
+
     // Méthode pour mettre à jour le nom de la salle pour tous les cours d'une salle
-    @Modifying
+    // Retourne le nombre de cours modifiés (les cours portant déjà ce nom ne sont pas réécrits)
+    @Modifying(clearAutomatically = true)
     @Transactional
-    @Query("UPDATE Course c SET c.gymName = :gymName WHERE c.gymId = :gymId")
-    void updateGymNameByGymId(@Param("gymId") String gymId, @Param("gymName") String gymName);
+    @Query("UPDATE Course c SET c.gymName = :gymName WHERE c.gymId = :gymId " +
+           "AND (c.gymName IS NULL OR c.gymName <> :gymName)")
+    int updateGymNameByGymId(@Param("gymId") String gymId, @Param("gymName") String gymName);
     
+    // IDs des cours d'une salle après un ID donné (parcours keyset par lots, index gym_id + clé primaire)
+    @Query("SELECT c.id FROM Course c WHERE c.gymId = :gymId AND c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsByGymIdAfter(@Param("gymId") String gymId, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Désassocie une plage de cours d'une salle (bornes incluses), retourne le nombre de cours modifiés
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Course c SET c.gymId = null, c.gymName = null " +
+           "WHERE c.gymId = :gymId AND c.id BETWEEN :fromId AND :toId")
+    int removeGymAssociationInRange(@Param("gymId") String gymId, @Param("fromId") Long fromId, @Param("toId") Long toId);
+
     // Méthode pour supprimer l'association avec une salle supprimée
-    @Modifying
+    @Modifying(clearAutomatically = true)
     @Transactional
     @Query("UPDATE Course c SET c.gymId = null, c.gymName = null WHERE c.gymId = :gymId")
     void removeGymAssociationByGymId(@Param("gymId") String gymId);
@@ -0,0 +1,18 @@
+package com.course.repository;
+
+import com.course.entity.Course;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Requêtes personnalisées du CourseRepository (pagination keyset)
+ */
+public interface CourseRepositoryCustom {
+
+    /**
+     * Retourne au plus {@code limit} cours correspondant au filtre, triés par (clé de tri, id),
+     * strictement après la position du curseur (première page si le curseur est null)
+     */
+    List<Course> findPage(Specification<Course> filter, CourseSortKey sortKey, CourseCursor after, int limit);
+}
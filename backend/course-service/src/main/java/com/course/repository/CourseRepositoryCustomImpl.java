@@ -0,0 +1,76 @@
+package com.course.repository;
+
+import com.course.entity.Course;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implémentation de la pagination keyset: WHERE (clé, id) > (valeur, dernierId) ORDER BY clé, id LIMIT n
+ * Le coût d'une page est constant quelle que soit sa position dans la table (pas d'OFFSET)
+ */
+public class CourseRepositoryCustomImpl implements CourseRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Course> findPage(Specification<Course> filter, CourseSortKey sortKey, CourseCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Course> query = cb.createQuery(Course.class);
+        Root<Course> root = query.from(Course.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter != null) {
+            Predicate filterPredicate = filter.toPredicate(root, query, cb);
+            if (filterPredicate != null) {
+                predicates.add(filterPredicate);
+            }
+        }
+        if (after != null) {
+            predicates.add(keysetPredicate(cb, root, sortKey, after));
+        }
+
+        query.select(root).where(predicates.toArray(new Predicate[0]));
+        if (sortKey == CourseSortKey.ID) {
+            query.orderBy(cb.asc(root.get("id")));
+        } else {
+            // MySQL trie les NULL en premier en ordre ascendant, ce que reflète keysetPredicate
+            query.orderBy(cb.asc(root.get(sortKey.getAttribute())), cb.asc(root.get("id")));
+        }
+
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate keysetPredicate(CriteriaBuilder cb, Root<Course> root, CourseSortKey sortKey, CourseCursor after) {
+        Path<Long> id = root.get("id");
+        if (sortKey == CourseSortKey.ID) {
+            return cb.greaterThan(id, after.getLastId());
+        }
+
+        Path<Comparable> sortPath = root.get(sortKey.getAttribute());
+        Comparable value = sortKey.parseValue(after.getSortValue());
+        if (value == null) {
+            // Dernier élément sans valeur: reste des NULL puis toutes les valeurs renseignées
+            return cb.or(
+                cb.isNotNull(sortPath),
+                cb.and(cb.isNull(sortPath), cb.greaterThan(id, after.getLastId()))
+            );
+        }
+        return cb.or(
+            cb.greaterThan(sortPath, value),
+            cb.and(cb.equal(sortPath, value), cb.greaterThan(id, after.getLastId()))
+        );
+    }
+}
@@ -0,0 +1,55 @@
+package com.course.repository;
+
+import com.course.entity.Course;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+/**
+ * Clés de tri supportées par la pagination keyset des cours
+ * Chaque clé est complétée par l'id pour garantir un ordre total
+ */
+public enum CourseSortKey {
+    ID("id", course -> null),
+    TITLE("title", Course::getTitle),
+    PRICE("price", course -> course.getPrice() != null ? course.getPrice().toPlainString() : null);
+
+    private final String attribute;
+    private final Function<Course, String> valueExtractor;
+
+    CourseSortKey(String attribute, Function<Course, String> valueExtractor) {
+        this.attribute = attribute;
+        this.valueExtractor = valueExtractor;
+    }
+
+    public String getAttribute() { return attribute; }
+
+    /**
+     * Valeur de la clé de tri pour le dernier élément d'une page (null si non applicable)
+     */
+    public String extractValue(Course course) {
+        return valueExtractor.apply(course);
+    }
+
+    /**
+     * Convertit la valeur stockée dans un curseur vers le type de l'attribut
+     */
+    public Comparable<?> parseValue(String rawValue) {
+        if (rawValue == null) {
+            return null;
+        }
+        return this == PRICE ? new BigDecimal(rawValue) : rawValue;
+    }
+
+    public static CourseSortKey from(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        for (CourseSortKey key : values()) {
+            if (key.name().equalsIgnoreCase(value) || key.attribute.equalsIgnoreCase(value)) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("Clé de tri non supportée: " + value);
+    }
+}
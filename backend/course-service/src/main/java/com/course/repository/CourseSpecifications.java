@@ -0,0 +1,77 @@
+package com.course.repository;
+
+import com.course.dto.CourseSearchCriteria;
+import com.course.entity.Course;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+/**
+ * Critères réutilisables pour les requêtes dynamiques sur les cours
+ * Chaque critère porte sur une colonne indexée (voir @Table de Course)
+ */
+public final class CourseSpecifications {
+
+    private CourseSpecifications() {}
+
+    public static Specification<Course> hasGymId(String gymId) {
+        return (root, query, cb) -> cb.equal(root.get("gymId"), gymId);
+    }
+
+    public static Specification<Course> hasLevel(String level) {
+        return (root, query, cb) -> cb.equal(root.get("level"), level);
+    }
+
+    public static Specification<Course> hasInstructor(String instructor) {
+        return (root, query, cb) -> cb.equal(root.get("instructor"), instructor);
+    }
+
+    public static Specification<Course> priceAtLeast(BigDecimal minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Course> priceAtMost(BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Course> maxParticipantsAtLeast(Integer minParticipants) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("maxParticipants"), minParticipants);
+    }
+
+    public static Specification<Course> maxParticipantsAtMost(Integer maxParticipants) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("maxParticipants"), maxParticipants);
+    }
+
+    /**
+     * Combine les critères renseignés (les critères null ou vides sont ignorés)
+     */
+    public static Specification<Course> matching(CourseSearchCriteria criteria) {
+        Specification<Course> spec = Specification.where(null);
+        if (hasText(criteria.getGymId())) {
+            spec = spec.and(hasGymId(criteria.getGymId()));
+        }
+        if (hasText(criteria.getLevel())) {
+            spec = spec.and(hasLevel(criteria.getLevel()));
+        }
+        if (hasText(criteria.getInstructor())) {
+            spec = spec.and(hasInstructor(criteria.getInstructor()));
+        }
+        if (criteria.getMinPrice() != null) {
+            spec = spec.and(priceAtLeast(criteria.getMinPrice()));
+        }
+        if (criteria.getMaxPrice() != null) {
+            spec = spec.and(priceAtMost(criteria.getMaxPrice()));
+        }
+        if (criteria.getMinParticipants() != null) {
+            spec = spec.and(maxParticipantsAtLeast(criteria.getMinParticipants()));
+        }
+        if (criteria.getMaxParticipants() != null) {
+            spec = spec.and(maxParticipantsAtMost(criteria.getMaxParticipants()));
+        }
+        return spec;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,23 @@
+package com.course.repository;
+
+import com.course.entity.GymCascadeProgress;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface GymCascadeProgressRepository extends JpaRepository<GymCascadeProgress, String> {
+    List<GymCascadeProgress> findByStatus(GymCascadeProgress.Status status);
+
+    /**
+     * Verrouille l'avancement d'une cascade (SELECT ... FOR UPDATE) jusqu'à la fin de la transaction du lot
+     * Deux exécutions de la même cascade (GYM_DELETED relivré, reprise au démarrage) traitent ainsi
+     * chaque lot l'une après l'autre, à partir du dernier cours validé
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM GymCascadeProgress p WHERE p.gymId = :gymId")
+    Optional<GymCascadeProgress> lockById(String gymId);
+}
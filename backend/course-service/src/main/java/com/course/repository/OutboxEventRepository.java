@@ -0,0 +1,48 @@
+package com.course.repository;
+
+import com.course.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Verrouille les plus anciens messages disponibles (SELECT ... ORDER BY id LIMIT n FOR UPDATE)
+     * Une clé (topic + message_key) dont un message est écarté, en cours d'envoi ou en attente d'un nouvel essai
+     * est bloquée: ses messages suivants restent en attente pour conserver l'ordre par clé, les autres clés passent
+     * Le verrou n'est tenu que le temps de poser le bail (lease_until), pas pendant l'envoi
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OutboxEvent o WHERE o.parkedAt IS NULL " +
+           "AND (o.leaseUntil IS NULL OR o.leaseUntil <= :now) " +
+           "AND NOT EXISTS (SELECT b.id FROM OutboxEvent b WHERE b.topic = o.topic AND b.messageKey = o.messageKey " +
+           "AND (b.parkedAt IS NOT NULL OR b.leaseUntil > :now)) " +
+           "ORDER BY o.id")
+    List<OutboxEvent> lockOldest(@Param("now") LocalDateTime now, Pageable pageable);
+
+    Optional<OutboxEvent> findFirstByParkedAtIsNullOrderByIdAsc();
+
+    long countByParkedAtIsNull();
+
+    long countByParkedAtIsNotNull();
+
+    /**
+     * Remet les messages écartés dans le circuit du relais (après correction de la cause)
+     * Les messages suivants de leurs clés étaient restés bloqués: l'ordre par clé est conservé
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent o SET o.parkedAt = null, o.attempts = 0, o.leaseUntil = null, o.lastError = null " +
+           "WHERE o.parkedAt IS NOT NULL")
+    int requeueParked();
+}
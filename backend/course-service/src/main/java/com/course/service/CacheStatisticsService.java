@@ -0,0 +1,49 @@
+package com.course.service;
+
+import com.course.entity.Course;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statistiques du cache de second niveau et du cache de requêtes Hibernate
+ * Nécessite course.cache.statistics=true pour que les compteurs soient alimentés
+ */
+@Service
+public class CacheStatisticsService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Hits / misses / puts de la région Course et du cache de requêtes
+     */
+    public Map<String, Object> getCourseCacheStatistics() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("secondLevelCacheEnabled", sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled());
+        result.put("queryCacheEnabled", sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled());
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+
+        CacheRegionStatistics courseRegion = statistics.getCacheRegionStatistics(Course.class.getName());
+        if (courseRegion != null) {
+            result.put("courseRegionHits", courseRegion.getHitCount());
+            result.put("courseRegionMisses", courseRegion.getMissCount());
+            result.put("courseRegionPuts", courseRegion.getPutCount());
+            result.put("courseRegionElementsInMemory", courseRegion.getElementCountInMemory());
+        }
+
+        result.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        result.put("queryCachePuts", statistics.getQueryCachePutCount());
+        return result;
+    }
+}
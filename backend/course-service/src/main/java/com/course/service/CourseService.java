@@ -1,19 +1,30 @@
 package com.course.service;
 
 import com.course.dto.CourseDTO;
+import com.course.dto.CourseSearchCriteria;
 import com.course.dto.CourseWithGymDTO;
-import com.course.dto.GymDTO;
+import com.course.dto.CursorPageDTO;
+import com.course.dto.GymListSnapshot;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface CourseService {
     CourseDTO create(CourseDTO courseDTO);
     CourseDTO update(Long id, CourseDTO courseDTO);
+    List<CourseDTO> createAll(List<CourseDTO> courseDTOs);
+    List<CourseDTO> updateAll(List<CourseDTO> courseDTOs);
     void delete(Long id);
     CourseDTO getById(Long id);
     List<CourseDTO> getAll();
+    CursorPageDTO<CourseDTO> getPage(String cursor, Integer size, String sort);
+    long exportAll(OutputStream outputStream) throws IOException;
     List<CourseWithGymDTO> getAllCoursesWithGymInfo();
+    CursorPageDTO<CourseWithGymDTO> getCoursesWithGymInfoPage(String cursor, Integer size, String sort);
     List<CourseDTO> getCoursesByGymId(String gymId);
+    CursorPageDTO<CourseDTO> getCoursesByGymIdPage(String gymId, String cursor, Integer size, String sort);
     List<CourseDTO> getCoursesByGymName(String gymName);
-    List<GymDTO> getAvailableGyms();
+    CursorPageDTO<CourseDTO> search(CourseSearchCriteria criteria, String cursor, Integer size, String sort);
+    GymListSnapshot getAvailableGyms();
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.course.service;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rejeu des messages de gym-events-dlt vers gym-events (après correction de la cause de l'échec)
+ * Les valeurs sont republiées telles quelles (octets d'origine et en-tête content-type),
+ * les offsets de la dead letter ne sont validés qu'une fois les envois acquittés
+ */
+@Service
+public class DeadLetterReplayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterReplayService.class);
+
+    // En-têtes ajoutés par la dead letter et les topics de retry, retirés au rejeu
+    private static final String[] REPLAY_EXCLUDED_HEADER_PREFIXES = {
+        "kafka_dlt-", "retry_topic-", "springDeserializerException"
+    };
+
+    @Autowired
+    private ConsumerFactory<String, byte[]> deadLetterConsumerFactory;
+
+    @Autowired
+    private KafkaTemplate<String, Object> gymEventRetryKafkaTemplate;
+
+    @Value("${course.kafka.dlt.replay.poll-timeout-ms:5000}")
+    private long pollTimeoutMs;
+
+    // Un seul rejeu à la fois; verrou plutôt que synchronized (le rejeu bloque sur Kafka:
+    // un moniteur épinglerait le thread porteur en mode threads virtuels)
+    private final ReentrantLock replayLock = new ReentrantLock();
+
+    /**
+     * Rejoue au plus max messages de gym-events-dlt, retourne le nombre de messages rejoués
+     */
+    public int replayGymEvents(int max) {
+        replayLock.lock();
+        try {
+            return replay(max);
+        } finally {
+            replayLock.unlock();
+        }
+    }
+
+    private int replay(int max) {
+        logger.info("Rejeu de la dead letter {} (max {} messages)", KafkaConsumerService.GYM_EVENTS_DLT_TOPIC, max);
+
+        try (Consumer<String, byte[]> consumer = deadLetterConsumerFactory.createConsumer()) {
+            consumer.subscribe(List.of(KafkaConsumerService.GYM_EVENTS_DLT_TOPIC));
+
+            Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+            List<CompletableFuture<?>> sends = new ArrayList<>();
+            long deadline = System.currentTimeMillis() + pollTimeoutMs;
+
+            while (sends.size() < max && System.currentTimeMillis() < deadline) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(500));
+                if (records.isEmpty() && !consumer.assignment().isEmpty()) {
+                    break; // Dead letter vidée
+                }
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    if (sends.size() >= max) {
+                        break;
+                    }
+                    sends.add(gymEventRetryKafkaTemplate.send(new ProducerRecord<>(
+                        KafkaConsumerService.GYM_EVENTS_TOPIC, null, record.key(), record.value(),
+                        replayHeaders(record.headers()))));
+                    offsets.put(new TopicPartition(record.topic(), record.partition()),
+                        new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+
+            if (sends.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Rejeu de la dead letter interrompu", e);
+            } catch (Exception e) {
+                throw new RuntimeException("Échec du rejeu de la dead letter: " + e.getMessage(), e);
+            }
+            consumer.commitSync(offsets);
+
+            logger.info("{} messages rejoués de {} vers {}", sends.size(),
+                KafkaConsumerService.GYM_EVENTS_DLT_TOPIC, KafkaConsumerService.GYM_EVENTS_TOPIC);
+            return sends.size();
+        }
+    }
+
+    private Headers replayHeaders(Headers original) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : original) {
+            boolean excluded = false;
+            for (String prefix : REPLAY_EXCLUDED_HEADER_PREFIXES) {
+                if (header.key().startsWith(prefix)) {
+                    excluded = true;
+                    break;
+                }
+            }
+            if (!excluded) {
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,144 @@
+package com.course.service;
+
+import com.course.entity.GymCascadeProgress;
+import com.course.repository.CourseRepository;
+import com.course.repository.GymCascadeProgressRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cascade de suppression d'une salle: désassocie ses cours par lots keyset bornés
+ * Chaque lot (UPDATE par plage d'IDs + événement + avancement) est validé dans sa propre transaction,
+ * ce qui borne la mémoire et permet de reprendre après un redémarrage
+ */
+@Service
+public class GymCascadeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GymCascadeService.class);
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private GymCascadeProgressRepository progressRepository;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${course.gym-cascade.chunk-size:1000}")
+    private int chunkSize;
+
+    // Transaction propre à chaque lot, même appelé depuis une transaction englobante (listener en mode lot)
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Désassocie tous les cours d'une salle supprimée, en reprenant l'avancement existant le cas échéant
+     * Retourne le nombre total de cours désassociés
+     */
+    public long unassignCourses(String gymId, String gymName) {
+        GymCascadeProgress progress = chunkTransaction.execute(status -> progressRepository.findById(gymId)
+            .filter(existing -> existing.getStatus() == GymCascadeProgress.Status.IN_PROGRESS)
+            .orElseGet(() -> progressRepository.save(new GymCascadeProgress(gymId, gymName))));
+
+        logger.info("Désassociation des cours de la salle {} ({}) à partir du cours {}",
+            gymId, progress.getGymName(), progress.getLastCourseId());
+
+        Integer chunkCount;
+        do {
+            chunkCount = chunkTransaction.execute(status -> processChunk(gymId));
+        } while (chunkCount != null && chunkCount == chunkSize);
+
+        GymCascadeProgress completed = chunkTransaction.execute(status -> {
+            GymCascadeProgress finished = progressRepository.lockById(gymId).orElseThrow();
+            if (finished.getStatus() == GymCascadeProgress.Status.COMPLETED) {
+                // Terminée par une exécution concurrente, qui a déjà notifié
+                return finished;
+            }
+            finished.setStatus(GymCascadeProgress.Status.COMPLETED);
+            finished.setUpdatedAt(LocalDateTime.now());
+
+            if (finished.getProcessedCount() > 0) {
+                // Notification globale
+                kafkaProducerService.sendNotification("system",
+                    String.format("Salle supprimée: %s - %d cours désassociés",
+                        finished.getGymName(), finished.getProcessedCount()));
+            }
+            return progressRepository.save(finished);
+        });
+
+        logger.info("Tous les cours ont été désassociés de la salle supprimée {}: {} cours",
+            completed.getGymName(), completed.getProcessedCount());
+        return completed.getProcessedCount();
+    }
+
+    /**
+     * Reprend les cascades interrompues par un arrêt du service
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedCascades() {
+        List<GymCascadeProgress> interrupted = progressRepository.findByStatus(GymCascadeProgress.Status.IN_PROGRESS);
+        for (GymCascadeProgress progress : interrupted) {
+            logger.warn("Reprise de la désassociation des cours de la salle {} après le cours {}",
+                progress.getGymId(), progress.getLastCourseId());
+            try {
+                unassignCourses(progress.getGymId(), progress.getGymName());
+            } catch (Exception e) {
+                logger.error("Échec de la reprise pour la salle {}: {}", progress.getGymId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Traite un lot: IDs suivants (keyset), UPDATE de la plage, événement groupé, avancement
+     * Retourne le nombre de cours du lot (0 = terminé)
+     * L'avancement est verrouillé pour la durée du lot: une exécution concurrente attend puis repart du lot suivant
+     */
+    private int processChunk(String gymId) {
+        GymCascadeProgress progress = progressRepository.lockById(gymId).orElseThrow();
+        if (progress.getStatus() == GymCascadeProgress.Status.COMPLETED) {
+            return 0;
+        }
+
+        List<Long> courseIds = courseRepository.findIdsByGymIdAfter(
+            gymId, progress.getLastCourseId(), PageRequest.of(0, chunkSize));
+        if (courseIds.isEmpty()) {
+            return 0;
+        }
+
+        Long fromId = courseIds.get(0);
+        Long toId = courseIds.get(courseIds.size() - 1);
+        int unassigned = courseRepository.removeGymAssociationInRange(gymId, fromId, toId);
+
+        kafkaProducerService.publishCoursesUnassignedFromGym(gymId, progress.getGymName(), fromId, toId, unassigned);
+
+        progress.setLastCourseId(toId);
+        progress.setProcessedCount(progress.getProcessedCount() + unassigned);
+        progress.setUpdatedAt(LocalDateTime.now());
+        progressRepository.save(progress);
+
+        logger.debug("Lot désassocié pour la salle {}: cours {} à {} ({} cours)", gymId, fromId, toId, unassigned);
+        return courseIds.size();
+    }
+}
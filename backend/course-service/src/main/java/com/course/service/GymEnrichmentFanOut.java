@@ -0,0 +1,136 @@
+package com.course.service;
+
+import com.course.client.RequestDeadline;
+import com.course.config.TaskExecutors;
+import com.course.dto.GymDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Récupération parallèle des paquets de salles pour l'enrichissement des listes de cours
+ * Au plus gym-service.enrichment.parallelism paquets en vol par requête; l'attente est bornée par
+ * gym-service.enrichment.deadline-ms et par l'échéance de la requête (RequestDeadline)
+ * À l'échéance, les paquets déjà reçus sont retournés; les paquets non démarrés sont annulés, ceux en vol
+ * se terminent sans interruption (une interruption serait comptée comme un échec par le Circuit Breaker)
+ */
+@Component
+public class GymEnrichmentFanOut {
+
+    private static final Logger logger = LoggerFactory.getLogger(GymEnrichmentFanOut.class);
+
+    @Value("${gym-service.enrichment.parallelism:4}")
+    private int parallelism;
+
+    @Value("${gym-service.enrichment.deadline-ms:2000}")
+    private long deadlineMs;
+
+    @Value("${gym-service.enrichment.pool-size:16}")
+    private int poolSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskExecutors taskExecutors;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        executor = taskExecutors.newExecutor("gym-enrich-", poolSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Charge les paquets en parallèle et retourne les salles reçues avant l'échéance
+     * Les salles des paquets non terminés (ou en échec) sont absentes du résultat
+     */
+    public List<GymDTO> fetch(List<List<String>> chunks, Function<List<String>, List<GymDTO>> loader) {
+        List<GymDTO> gyms = new ArrayList<>();
+        if (chunks.isEmpty()) {
+            return gyms;
+        }
+
+        long budgetMs = Math.min(deadlineMs, RequestDeadline.remainingMillis());
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(budgetMs, 0));
+
+        // L'échéance transmise au Gym Service est celle de l'enrichissement si elle est plus courte
+        Long requestDeadline = RequestDeadline.get();
+        Long callDeadline = requestDeadline == null ? deadlineNanos : Math.min(requestDeadline, deadlineNanos);
+
+        ExecutorCompletionService<List<GymDTO>> completion = new ExecutorCompletionService<>(executor);
+        List<Future<List<GymDTO>>> futures = new ArrayList<>();
+        int next = 0;
+        int pending = 0;
+        int completed = 0;
+        try {
+            while (next < chunks.size() && pending < parallelism) {
+                futures.add(submit(completion, chunks.get(next++), loader, callDeadline));
+                pending++;
+            }
+            while (pending > 0) {
+                long remaining = deadlineNanos - System.nanoTime();
+                Future<List<GymDTO>> done = remaining > 0 ? completion.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (done == null) {
+                    break;
+                }
+                pending--;
+                completed++;
+                try {
+                    gyms.addAll(done.get());
+                } catch (ExecutionException e) {
+                    logger.error("Échec d'un paquet d'enrichissement: {}", e.getCause().getMessage());
+                }
+                if (next < chunks.size()) {
+                    futures.add(submit(completion, chunks.get(next++), loader, callDeadline));
+                    pending++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Sans interruption: le thread attend le TimeLimiter dans CircuitBreaker.decorateCallable,
+            // l'InterruptedException serait enregistrée comme un échec du Gym Service
+            futures.forEach(future -> future.cancel(false));
+        }
+
+        int unresolved = chunks.size() - completed;
+        if (unresolved > 0) {
+            logger.warn("Échéance d'enrichissement atteinte ({} ms): {}/{} paquets de salles non résolus",
+                budgetMs, unresolved, chunks.size());
+            meterRegistry.counter("gym.enrichment.chunks.unresolved").increment(unresolved);
+        }
+        return gyms;
+    }
+
+    private Future<List<GymDTO>> submit(ExecutorCompletionService<List<GymDTO>> completion, List<String> chunk,
+                                        Function<List<String>, List<GymDTO>> loader, Long deadline) {
+        return completion.submit(() -> {
+            RequestDeadline.set(deadline);
+            try {
+                return loader.apply(chunk);
+            } finally {
+                RequestDeadline.clear();
+            }
+        });
+    }
+}
@@ -0,0 +1,284 @@
+package com.course.service;
+
+import com.course.config.TaskExecutors;
+import com.course.event.GymEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Traitement parallèle des événements gym-events, ordonné par salle
+ * Chaque salle est toujours traitée par le même worker (hash du gymId): l'ordre est conservé par salle
+ * et les salles indépendantes avancent en parallèle. Les offsets ne sont validés que jusqu'au plus petit
+ * message encore en cours de chaque partition.
+ * Un message en échec part en reprise (gym-events-retry-N puis gym-events-dlt): tant que cet envoi
+ * n'est pas confirmé, son offset reste en cours et n'est pas validé.
+ */
+@Component
+public class GymEventParallelProcessor implements ConsumerAwareRebalanceListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(GymEventParallelProcessor.class);
+
+    public static final String LISTENER_ID = "gymEventParallelListener";
+
+    @Value("${course.kafka.gym-events.parallel.workers:8}")
+    private int workerCount;
+
+    @Value("${course.kafka.gym-events.parallel.max-in-flight:5000}")
+    private int maxInFlight;
+
+    @Value("${course.kafka.gym-events.parallel.revoke-timeout-ms:10000}")
+    private long revokeTimeoutMs;
+
+    @Value("${course.kafka.gym-events.parallel.republish-backoff-ms:1000}")
+    private long republishBackoffMs;
+
+    @Autowired
+    private GymEventRetryRouter retryRouter;
+
+    @Autowired
+    private TaskExecutors taskExecutors;
+
+    private ExecutorService[] workers;
+
+    private final Map<TopicPartition, PartitionProgress> progressByPartition = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile boolean stopping;
+
+    @PostConstruct
+    void startWorkers() {
+        workers = new ExecutorService[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            // Un seul thread par worker (plateforme ou virtuel): l'ordre par salle est conservé
+            workers[i] = Executors.newSingleThreadExecutor(taskExecutors.threadFactory("gym-events-worker-" + i + "-"));
+        }
+    }
+
+    @PreDestroy
+    void stopWorkers() throws InterruptedException {
+        stopping = true;
+        for (ExecutorService worker : workers) {
+            worker.shutdown();
+        }
+        for (ExecutorService worker : workers) {
+            worker.awaitTermination(revokeTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Répartit un lot entre les workers puis valide les offsets déjà terminés
+     * Appelé sur le thread du consumer Kafka
+     */
+    public void dispatch(List<ConsumerRecord<String, GymEvent>> records, Consumer<?, ?> consumer,
+                         java.util.function.Consumer<GymEvent> handler) {
+        Set<ConsumerRecord<String, GymEvent>> superseded = supersededUpdates(records);
+        for (ConsumerRecord<String, GymEvent> record : records) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            PartitionProgress progress = progressByPartition.computeIfAbsent(partition, tp -> new PartitionProgress());
+            long offset = record.offset();
+            if (superseded.contains(record)) {
+                // Remplacé par une mise à jour plus récente du même lot: son offset n'est validé
+                // qu'une fois cette dernière terminée (elle reste en cours avec un offset supérieur)
+                progress.highestDispatched = offset;
+                continue;
+            }
+
+            waitForCapacity(consumer);
+            progress.inFlight.add(offset);
+            progress.highestDispatched = offset;
+            inFlight.incrementAndGet();
+
+            GymEvent gymEvent = record.value();
+            String orderingKey = gymEvent != null && gymEvent.getGymId() != null ? gymEvent.getGymId() : record.key();
+            workerFor(orderingKey).execute(() -> {
+                boolean done = true;
+                try {
+                    if (gymEvent == null) {
+                        done = republish(record, new IllegalStateException("Événement GYM illisible"));
+                    } else if (gymEvent.getEventType() != null) {
+                        handler.accept(gymEvent);
+                    } else {
+                        logger.warn("Événement GYM ignoré - Partition: {}, Offset: {}", record.partition(), offset);
+                    }
+                } catch (Exception e) {
+                    logger.error("Erreur lors du traitement de l'événement GYM (partition {}, offset {}): {}",
+                        record.partition(), offset, e.getMessage(), e);
+                    done = republish(record, e);
+                } finally {
+                    // Reprise non publiée: l'offset reste en cours, le message sera relivré après rebalance ou redémarrage
+                    if (done) {
+                        progress.inFlight.remove(offset);
+                    }
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+
+        commitCompleted(consumer, consumer.assignment());
+    }
+
+    /**
+     * GYM_UPDATED suivis d'une mise à jour plus récente de la même salle dans le lot (seul le nom final compte)
+     */
+    private Set<ConsumerRecord<String, GymEvent>> supersededUpdates(List<ConsumerRecord<String, GymEvent>> records) {
+        Set<ConsumerRecord<String, GymEvent>> superseded = new HashSet<>();
+        Map<String, ConsumerRecord<String, GymEvent>> latestUpdateByGym = new HashMap<>();
+        for (ConsumerRecord<String, GymEvent> record : records) {
+            GymEvent gymEvent = record.value();
+            if (gymEvent == null || gymEvent.getGymId() == null
+                    || gymEvent.getEventType() != GymEvent.EventType.GYM_UPDATED) {
+                continue;
+            }
+            // Par partition: l'offset remplacé n'est couvert que par un message en cours de la même partition
+            String gymKey = record.topic() + "-" + record.partition() + "/" + gymEvent.getGymId();
+            ConsumerRecord<String, GymEvent> previous = latestUpdateByGym.put(gymKey, record);
+            if (previous != null) {
+                superseded.add(previous);
+            }
+        }
+        if (!superseded.isEmpty()) {
+            logger.debug("{} mises à jour de salles regroupées dans le lot", superseded.size());
+        }
+        return superseded;
+    }
+
+    /**
+     * Sans nouveau message, le container publie périodiquement un événement d'inactivité
+     * sur le thread du consumer: on en profite pour valider les offsets terminés entre-temps
+     */
+    @EventListener(condition = "event.listenerId.startsWith('" + LISTENER_ID + "')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        Consumer<?, ?> consumer = event.getConsumer();
+        if (consumer != null) {
+            commitCompleted(consumer, consumer.assignment());
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        // Laisser finir les messages en cours des partitions retirées avant de valider leurs offsets
+        long deadline = System.currentTimeMillis() + revokeTimeoutMs;
+        while (System.currentTimeMillis() < deadline && hasInFlight(partitions)) {
+            sleepQuietly(10);
+        }
+        commitCompleted(consumer, partitions);
+        partitions.forEach(progressByPartition::remove);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        partitions.forEach(progressByPartition::remove);
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Valide, pour chaque partition, l'offset du plus petit message encore en cours
+     * (ou le suivant du dernier message distribué si tout est terminé)
+     */
+    private void commitCompleted(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            PartitionProgress progress = progressByPartition.get(partition);
+            if (progress == null || progress.highestDispatched < 0) {
+                continue;
+            }
+            Long lowestInFlight = progress.inFlight.ceiling(Long.MIN_VALUE);
+            long committable = lowestInFlight != null ? lowestInFlight : progress.highestDispatched + 1;
+            if (committable > progress.lastCommitted) {
+                offsets.put(partition, new OffsetAndMetadata(committable));
+                progress.lastCommitted = committable;
+            }
+        }
+
+        if (!offsets.isEmpty()) {
+            consumer.commitSync(offsets);
+            logger.debug("Offsets gym-events validés: {}", offsets);
+        }
+    }
+
+    /**
+     * Contre-pression: au-delà de max-in-flight messages en cours, le thread consumer attend les workers
+     */
+    private void waitForCapacity(Consumer<?, ?> consumer) {
+        while (inFlight.get() >= maxInFlight) {
+            sleepQuietly(10);
+            commitCompleted(consumer, consumer.assignment());
+        }
+    }
+
+    /**
+     * Envoie un message en échec vers son topic de reprise (ou la dead letter), en réessayant jusqu'à
+     * confirmation: seul le worker de la salle attend, les autres salles continuent
+     * Retourne false si l'arrêt du service interrompt les essais (l'offset ne doit pas être validé)
+     */
+    private boolean republish(ConsumerRecord<String, GymEvent> record, Exception exception) {
+        while (!stopping && !Thread.currentThread().isInterrupted()) {
+            try {
+                retryRouter.route(record, exception);
+                return true;
+            } catch (Exception e) {
+                logger.error("Impossible d'envoyer l'événement GYM en reprise (partition {}, offset {}): {}",
+                    record.partition(), record.offset(), e.getMessage());
+                sleepQuietly(republishBackoffMs);
+            }
+        }
+        return false;
+    }
+
+    private boolean hasInFlight(Collection<TopicPartition> partitions) {
+        return partitions.stream()
+            .map(progressByPartition::get)
+            .anyMatch(progress -> progress != null && !progress.inFlight.isEmpty());
+    }
+
+    private ExecutorService workerFor(String orderingKey) {
+        int hash = orderingKey != null ? orderingKey.hashCode() : 0;
+        return workers[Math.floorMod(hash, workers.length)];
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Suivi des offsets d'une partition: messages en cours et dernier offset validé
+     */
+    private static class PartitionProgress {
+        private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+        private volatile long highestDispatched = -1;
+        private long lastCommitted = -1;
+    }
+}
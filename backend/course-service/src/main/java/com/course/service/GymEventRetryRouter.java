@@ -0,0 +1,122 @@
+package com.course.service;
+
+import com.course.event.GymEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Reprises des événements gym-events en mode parallel
+ * Mêmes topics et même délai exponentiel que @RetryableTopic en mode single: gym-events-retry-N puis gym-events-dlt.
+ * Les envois sont synchrones et lèvent une exception en cas d'échec: l'appelant ne valide pas l'offset.
+ */
+@Component
+public class GymEventRetryRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(GymEventRetryRouter.class);
+
+    public static final String RETRY_TOPIC_PREFIX = KafkaConsumerService.GYM_EVENTS_TOPIC + "-retry-";
+
+    // Tentative suivante (la livraison initiale est la tentative 1) et échéance de la reprise (epoch ms)
+    static final String ATTEMPT_HEADER = "gym-events-attempt";
+    static final String DUE_AT_HEADER = "gym-events-due-at";
+    static final String FAILURE_HEADER = "gym-events-failure";
+
+    @Value("${course.kafka.gym-events.retry.attempts:4}")
+    private int attempts;
+
+    @Value("${course.kafka.gym-events.retry.initial-delay-ms:1000}")
+    private long initialDelayMs;
+
+    @Value("${course.kafka.gym-events.retry.multiplier:2.0}")
+    private double multiplier;
+
+    @Value("${course.kafka.gym-events.retry.max-delay-ms:30000}")
+    private long maxDelayMs;
+
+    @Value("${course.kafka.gym-events.retry.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Autowired
+    private KafkaTemplate<String, Object> gymEventRetryKafkaTemplate;
+
+    @Autowired
+    private DeadLetterPublishingRecoverer gymEventDeadLetterRecoverer;
+
+    /**
+     * Republie un événement en échec sur le topic de retry de sa tentative suivante,
+     * ou en dead letter s'il est illisible ou a épuisé ses tentatives
+     */
+    public void route(ConsumerRecord<String, GymEvent> record, Exception failure) {
+        int attempt = attemptOf(record);
+        if (record.value() == null || attempt >= attempts) {
+            deadLetter(record, failure);
+            return;
+        }
+
+        ProducerRecord<String, Object> retry = new ProducerRecord<>(
+            RETRY_TOPIC_PREFIX + (attempt - 1), record.key(), record.value());
+        retry.headers().add(ATTEMPT_HEADER, ByteBuffer.allocate(Integer.BYTES).putInt(attempt + 1).array());
+        retry.headers().add(DUE_AT_HEADER,
+            ByteBuffer.allocate(Long.BYTES).putLong(System.currentTimeMillis() + delayFor(attempt)).array());
+        retry.headers().add(FAILURE_HEADER,
+            String.valueOf(failure.getMessage()).getBytes(StandardCharsets.UTF_8));
+        try {
+            gymEventRetryKafkaTemplate.send(retry).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Envoi vers " + retry.topic() + " interrompu", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Échec de l'envoi vers " + retry.topic() + ": " + e.getMessage(), e);
+        }
+        logger.warn("Événement GYM en reprise {} sur {} (partition {}, offset {})",
+            attempt, retry.topic(), record.partition(), record.offset());
+    }
+
+    /**
+     * Envoie un événement vers gym-events-dlt (lève une exception si l'envoi n'est pas confirmé)
+     */
+    public void deadLetter(ConsumerRecord<String, GymEvent> record, Exception failure) {
+        gymEventDeadLetterRecoverer.accept(record, failure);
+        logger.error("Événement GYM en dead letter - Topic: {}, Partition: {}, Offset: {}, Key: {}",
+            record.topic(), record.partition(), record.offset(), record.key());
+    }
+
+    /**
+     * Attend l'échéance d'un message de reprise
+     * Chaque topic de retry a un délai fixe: les messages d'une partition arrivent à échéance dans l'ordre
+     */
+    public void awaitDue(ConsumerRecord<String, GymEvent> record) throws InterruptedException {
+        Header dueAt = record.headers().lastHeader(DUE_AT_HEADER);
+        if (dueAt == null) {
+            return;
+        }
+        long waitMs = ByteBuffer.wrap(dueAt.value()).getLong() - System.currentTimeMillis();
+        if (waitMs > 0) {
+            Thread.sleep(Math.min(waitMs, maxDelayMs));
+        }
+    }
+
+    private int attemptOf(ConsumerRecord<String, GymEvent> record) {
+        Header attempt = record.headers().lastHeader(ATTEMPT_HEADER);
+        return attempt != null ? ByteBuffer.wrap(attempt.value()).getInt() : 1;
+    }
+
+    private long delayFor(int attempt) {
+        double delay = initialDelayMs * Math.pow(multiplier, attempt - 1);
+        return (long) Math.min(delay, maxDelayMs);
+    }
+}
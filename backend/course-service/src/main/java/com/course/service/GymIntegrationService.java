@@ -1,18 +1,33 @@
 package com.course.service;
 
 import com.course.client.GymClient;
+import com.course.client.GymClientFallback;
+import com.course.client.GymClientMetrics;
+import com.course.client.GymClientMetrics.Outcome;
 import com.course.client.GymClientWithCircuitBreaker;
+import com.course.client.GymServiceUnavailableException;
+import com.course.config.TaskExecutors;
 import com.course.dto.GymDTO;
+import com.course.dto.GymListSnapshot;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Service d'intégration avec le microservice Gym
@@ -29,9 +44,47 @@ public class GymIntegrationService {
     @Autowired
     private GymClientWithCircuitBreaker gymClientWithCircuitBreaker;
 
+    @Autowired
+    private GymClientFallback gymClientFallback;
+
     @Autowired
     private CircuitBreakerRegistry circuitBreakerRegistry;
 
+    @Autowired
+    private GymReadModel gymReadModel;
+
+    @Autowired
+    private GymClientMetrics gymClientMetrics;
+
+    @Autowired
+    private GymLookupHedger gymLookupHedger;
+
+    @Autowired
+    private GymServiceGuard gymServiceGuard;
+
+    @Autowired
+    private GymListCache gymListCache;
+
+    @Autowired
+    private GymEnrichmentFanOut gymEnrichmentFanOut;
+
+    @Autowired
+    private GymReadModelListener gymReadModelListener;
+
+    // Attente maximale de l'assignation des partitions de la réplique avant le chargement initial
+    @Autowired
+    private TaskExecutors taskExecutors;
+
+    @Value("${gym-read-model.warm-up-timeout-ms:30000}")
+    private long readModelWarmUpTimeoutMs;
+
+    @Value("${gym-service.batch-size:200}")
+    private int batchSize;
+
+    // Paquets plus petits pour l'enrichissement: plusieurs appels parallèles plutôt qu'un seul gros appel
+    @Value("${gym-service.enrichment.chunk-size:50}")
+    private int enrichmentChunkSize;
+
     /**
      * Récupère toutes les salles SANS Circuit Breaker
      * En cas d'erreur, l'exception est propagée
@@ -39,7 +92,8 @@ public class GymIntegrationService {
     public List<GymDTO> getAllGymsWithoutCircuitBreaker() {
         logger.info("Récupération de toutes les salles SANS Circuit Breaker");
         try {
-            List<GymDTO> gyms = gymClient.getAllGyms();
+            List<GymDTO> gyms = gymClientMetrics.record(
+                GymClientMetrics.CLIENT, "getAllGyms", Outcome.ERROR, gymClient::getAllGyms);
             logger.info("Récupération réussie de {} salles", gyms.size());
             return gyms;
         } catch (Exception e) {
@@ -54,7 +108,8 @@ public class GymIntegrationService {
     public Optional<GymDTO> getGymByIdWithoutCircuitBreaker(String gymId) {
         logger.info("Récupération de la salle {} SANS Circuit Breaker", gymId);
         try {
-            GymDTO gym = gymClient.getGymById(gymId);
+            GymDTO gym = gymClientMetrics.record(
+                GymClientMetrics.CLIENT, "getGymById", Outcome.ERROR, () -> gymClient.getGymById(gymId));
             logger.info("Salle récupérée avec succès: {}", gym.getName());
             return Optional.of(gym);
         } catch (Exception e) {
@@ -68,23 +123,46 @@ public class GymIntegrationService {
      * Utilise le fallback en cas de panne
      */
     public List<GymDTO> getAllGymsWithCircuitBreaker() {
+        try {
+            return fetchAllGymsWithCircuitBreaker();
+        } catch (Exception e) {
+            logger.error("Erreur avec Circuit Breaker pour getAllGyms: {}", e.getMessage());
+            // Réponse de repli locale: pas de second appel vers un service déjà en échec
+            return gymClientFallback.getAllGyms();
+        }
+    }
+
+    /**
+     * Récupère toutes les salles AVEC Circuit Breaker, sans fallback: l'échec est propagé
+     * Tant que la réplique locale n'est pas chargée (et que sa position gym-events est fixée),
+     * la réponse lui sert d'instantané initial; ensuite seuls les événements la modifient
+     */
+    private List<GymDTO> fetchAllGymsWithCircuitBreaker() {
         logger.info("Récupération de toutes les salles AVEC Circuit Breaker");
-        
+
+        boolean snapshot = gymReadModelListener.isPositioned() && gymReadModel.beginSnapshot();
+
         CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("gym-service");
         logger.info("État du Circuit Breaker: {}", circuitBreaker.getState());
 
-        Supplier<List<GymDTO>> decoratedSupplier = CircuitBreaker
-            .decorateSupplier(circuitBreaker, gymClientWithCircuitBreaker::getAllGyms);
+        Supplier<List<GymDTO>> decoratedSupplier = () -> gymServiceGuard.call("getAllGyms",
+            gymClientWithCircuitBreaker::getAllGyms);
 
+        List<GymDTO> gyms;
         try {
-            List<GymDTO> gyms = decoratedSupplier.get();
-            logger.info("Récupération réussie de {} salles avec CB", gyms.size());
-            return gyms;
-        } catch (Exception e) {
-            logger.error("Erreur avec Circuit Breaker pour getAllGyms: {}", e.getMessage());
-            // Le fallback est automatiquement appelé par Feign
-            return gymClientWithCircuitBreaker.getAllGyms();
+            gyms = gymClientMetrics.record(
+                GymClientMetrics.CLIENT_WITH_CB, "getAllGyms", Outcome.FALLBACK, decoratedSupplier);
+        } catch (RuntimeException e) {
+            if (snapshot) {
+                gymReadModel.abortSnapshot();
+            }
+            throw e;
         }
+        logger.info("Récupération réussie de {} salles avec CB", gyms.size());
+        if (snapshot) {
+            gymReadModel.completeSnapshot(gyms);
+        }
+        return gyms;
     }
 
     /**
@@ -96,17 +174,19 @@ public class GymIntegrationService {
         CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("gym-service");
         logger.info("État du Circuit Breaker: {}", circuitBreaker.getState());
 
-        Supplier<GymDTO> decoratedSupplier = CircuitBreaker
-            .decorateSupplier(circuitBreaker, () -> gymClientWithCircuitBreaker.getGymById(gymId));
+        Supplier<GymDTO> decoratedSupplier = () -> gymServiceGuard.call("getGymById",
+            () -> gymLookupHedger.call("getGymById", () -> gymClientWithCircuitBreaker.getGymById(gymId)));
 
         try {
-            GymDTO gym = decoratedSupplier.get();
+            GymDTO gym = gymClientMetrics.record(
+                GymClientMetrics.CLIENT_WITH_CB, "getGymById", Outcome.FALLBACK, decoratedSupplier);
             logger.info("Salle récupérée avec succès avec CB: {}", gym.getName());
+            gymReadModel.put(gym);
             return Optional.of(gym);
         } catch (Exception e) {
             logger.error("Erreur avec Circuit Breaker pour getGymById({}): {}", gymId, e.getMessage());
-            // Le fallback est automatiquement appelé par Feign
-            GymDTO fallbackGym = gymClientWithCircuitBreaker.getGymById(gymId);
+            // Réponse de repli locale: pas de second appel vers un service déjà en échec
+            GymDTO fallbackGym = gymClientFallback.getGymById(gymId);
             return Optional.of(fallbackGym);
         }
     }
@@ -116,6 +196,11 @@ public class GymIntegrationService {
      */
     public boolean validateGymExists(String gymId) {
         logger.info("Validation de l'existence de la salle: {}", gymId);
+
+        if (gymReadModel.findById(gymId).isPresent()) {
+            logger.info("Salle {} existe (réplique locale)", gymId);
+            return true;
+        }
         
         try {
             Optional<GymDTO> gym = getGymByIdWithCircuitBreaker(gymId);
@@ -133,11 +218,150 @@ public class GymIntegrationService {
      */
     public GymDTO getGymInfoForCourse(String gymId) {
         logger.info("Récupération des infos salle pour enrichissement: {}", gymId);
+
+        Optional<GymDTO> localGym = gymReadModel.findById(gymId);
+        if (localGym.isPresent()) {
+            return localGym.get();
+        }
         
         Optional<GymDTO> gym = getGymByIdWithCircuitBreaker(gymId);
         return gym.orElse(createDefaultGym(gymId));
     }
 
+    /**
+     * Récupère les salles disponibles (pour les formulaires)
+     * Servies depuis la réplique locale dès qu'elle est chargée, sinon depuis le cache
+     * stale-while-revalidate: la dernière bonne copie est préférée à la liste vide du fallback
+     */
+    public GymListSnapshot getAvailableGyms() {
+        if (gymReadModel.isLoaded()) {
+            logger.info("Salles disponibles servies depuis la réplique locale ({} salles)", gymReadModel.size());
+            return new GymListSnapshot(gymReadModel.findAll(), null, false);
+        }
+        return gymListCache.get(this::fetchAllGymsWithCircuitBreaker);
+    }
+
+    /**
+     * Chargement initial de la réplique locale au démarrage, une fois sa position gym-events fixée
+     * Les événements gym-events la maintiennent ensuite à jour; en cas d'échec, le prochain
+     * appel de la liste complète (getAvailableGyms) retente le chargement
+     * Exécuté sur un thread dédié: l'attente de l'assignation ne retarde pas les autres écouteurs
+     * de ApplicationReadyEvent (reprise des cascades interrompues)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpGymReadModel() {
+        if (!gymReadModel.isEnabled()) {
+            return;
+        }
+        taskExecutors.threadFactory("gym-read-model-warm-up-").newThread(this::loadGymReadModel).start();
+    }
+
+    private void loadGymReadModel() {
+        if (!gymReadModelListener.awaitPositioned(readModelWarmUpTimeoutMs)) {
+            logger.warn("Partitions gym-events de la réplique non assignées après {} ms, chargement initial différé",
+                readModelWarmUpTimeoutMs);
+            return;
+        }
+        logger.info("Chargement initial de la réplique locale des salles");
+        getAllGymsWithCircuitBreaker();
+    }
+
+    /**
+     * Récupère en lot les informations de plusieurs salles pour enrichir une liste de cours
+     * Les identifiants distincts sont envoyés par paquets de taille fixe, récupérés en parallèle
+     * (GymEnrichmentFanOut) dans la limite de l'échéance d'enrichissement
+     * Les salles introuvables ou non récupérées (service indisponible, échéance atteinte) sont absentes du résultat
+     */
+    public Map<String, GymDTO> getGymsInfoForCourses(Collection<String> gymIds) {
+        List<String> distinctIds = gymIds.stream()
+            .filter(Objects::nonNull)
+            .distinct()
+            .collect(Collectors.toList());
+        logger.info("Récupération groupée des infos de {} salles", distinctIds.size());
+
+        // Réplique locale d'abord, Feign uniquement pour les salles manquantes
+        Map<String, GymDTO> gymsById = new HashMap<>();
+        List<String> missingIds = new ArrayList<>();
+        for (String gymId : distinctIds) {
+            gymReadModel.findById(gymId).ifPresentOrElse(
+                gym -> gymsById.put(gymId, gym),
+                () -> missingIds.add(gymId));
+        }
+
+        // Taille bornée à 1: une valeur nulle ou négative ne doit pas faire boucler le découpage
+        int chunkSize = Math.max(1, Math.min(batchSize, enrichmentChunkSize));
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < missingIds.size(); from += chunkSize) {
+            chunks.add(missingIds.subList(from, Math.min(from + chunkSize, missingIds.size())));
+        }
+        gymEnrichmentFanOut.fetch(chunks, this::getGymsByIdsWithCircuitBreaker).forEach(gym -> {
+            gymsById.put(gym.getId(), gym);
+            gymReadModel.put(gym);
+        });
+        return gymsById;
+    }
+
+    /**
+     * Résout les salles référencées par des cours à valider: réplique locale, puis paquets Feign l'un après l'autre
+     * Sans échéance d'enrichissement ni résultat partiel: un paquet non récupéré lève GymServiceUnavailableException,
+     * une salle absente du résultat n'existe pas
+     */
+    public Map<String, GymDTO> resolveGymsForValidation(Collection<String> gymIds) {
+        List<String> distinctIds = gymIds.stream()
+            .filter(Objects::nonNull)
+            .distinct()
+            .collect(Collectors.toList());
+        logger.info("Validation groupée de {} salles", distinctIds.size());
+
+        Map<String, GymDTO> gymsById = new HashMap<>();
+        List<String> missingIds = new ArrayList<>();
+        for (String gymId : distinctIds) {
+            gymReadModel.findById(gymId).ifPresentOrElse(
+                gym -> gymsById.put(gymId, gym),
+                () -> missingIds.add(gymId));
+        }
+
+        int chunkSize = Math.max(1, batchSize);
+        for (int from = 0; from < missingIds.size(); from += chunkSize) {
+            List<String> chunk = missingIds.subList(from, Math.min(from + chunkSize, missingIds.size()));
+            Supplier<List<GymDTO>> decoratedSupplier = () -> gymServiceGuard.call("getGymsByIds",
+                () -> gymClientWithCircuitBreaker.getGymsByIds(new ArrayList<>(chunk)));
+            List<GymDTO> gyms;
+            try {
+                gyms = gymClientMetrics.record(
+                    GymClientMetrics.CLIENT_WITH_CB, "getGymsByIds", Outcome.FALLBACK, decoratedSupplier);
+            } catch (RuntimeException e) {
+                logger.error("Validation des salles impossible, Gym Service indisponible: {}", e.getMessage());
+                throw new GymServiceUnavailableException(
+                    "Gym Service indisponible: impossible de vérifier " + missingIds.size() + " salles", e);
+            }
+            gyms.forEach(gym -> {
+                gymsById.put(gym.getId(), gym);
+                gymReadModel.put(gym);
+            });
+        }
+        return gymsById;
+    }
+
+    /**
+     * Récupère un paquet de salles AVEC Circuit Breaker
+     * En cas d'échec, le paquet est considéré comme non résolu (liste vide)
+     */
+    private List<GymDTO> getGymsByIdsWithCircuitBreaker(List<String> gymIds) {
+        Supplier<List<GymDTO>> decoratedSupplier = () -> gymServiceGuard.call("getGymsByIds",
+            () -> gymLookupHedger.call("getGymsByIds", () -> gymClientWithCircuitBreaker.getGymsByIds(new ArrayList<>(gymIds))));
+
+        try {
+            List<GymDTO> gyms = gymClientMetrics.record(
+                GymClientMetrics.CLIENT_WITH_CB, "getGymsByIds", Outcome.FALLBACK, decoratedSupplier);
+            logger.info("Récupération groupée réussie: {}/{} salles", gyms.size(), gymIds.size());
+            return gyms;
+        } catch (Exception e) {
+            logger.error("Erreur avec Circuit Breaker pour getGymsByIds({} ids): {}", gymIds.size(), e.getMessage());
+            return List.of();
+        }
+    }
+
     /**
      * Crée une salle par défaut en cas d'indisponibilité du service
      */
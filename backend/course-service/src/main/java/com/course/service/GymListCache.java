@@ -0,0 +1,115 @@
+package com.course.service;
+
+import com.course.config.TaskExecutors;
+import com.course.dto.GymDTO;
+import com.course.dto.GymListSnapshot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Cache stale-while-revalidate de la liste complète des salles
+ * - avant le soft TTL: la copie est servie telle quelle
+ * - après le soft TTL: la copie est servie (marquée périmée) et un seul rafraîchissement part en arrière-plan
+ * - si le rafraîchissement échoue (Circuit Breaker ouvert...): la dernière bonne copie reste servie
+ */
+@Component
+public class GymListCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(GymListCache.class);
+
+    @Value("${gym-service.gym-list-cache.soft-ttl:30s}")
+    private Duration softTtl;
+
+    private volatile Entry entry;
+
+    // Rafraîchissement en cours (un seul appel GET /gyms à la fois)
+    private final AtomicReference<CompletableFuture<Entry>> inFlight = new AtomicReference<>();
+
+    @Autowired
+    private TaskExecutors taskExecutors;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        executor = taskExecutors.newExecutor("gym-list-refresh-", 1);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Retourne la liste des salles; le loader doit lever une exception en cas d'échec (pas de liste de repli)
+     */
+    public GymListSnapshot get(Supplier<List<GymDTO>> loader) {
+        Entry current = entry;
+        if (current == null) {
+            // Premier chargement: les appels concurrents attendent le même rafraîchissement
+            try {
+                current = refresh(loader).join();
+            } catch (CompletionException e) {
+                logger.warn("Aucune copie de la liste des salles disponible: {}", e.getCause().getMessage());
+                return new GymListSnapshot(List.of(), null, true);
+            }
+        }
+
+        boolean stale = Duration.between(current.fetchedAt, Instant.now()).compareTo(softTtl) >= 0;
+        if (stale) {
+            refresh(loader);
+        }
+        return new GymListSnapshot(current.gyms, current.fetchedAt, stale);
+    }
+
+    private CompletableFuture<Entry> refresh(Supplier<List<GymDTO>> loader) {
+        while (true) {
+            CompletableFuture<Entry> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            CompletableFuture<Entry> created = new CompletableFuture<>();
+            if (!inFlight.compareAndSet(null, created)) {
+                continue;
+            }
+            executor.execute(() -> {
+                try {
+                    Entry loaded = new Entry(List.copyOf(loader.get()), Instant.now());
+                    entry = loaded;
+                    logger.debug("Liste des salles rafraîchie: {} salles", loaded.gyms.size());
+                    created.complete(loaded);
+                } catch (RuntimeException e) {
+                    logger.warn("Rafraîchissement de la liste des salles échoué, dernière copie conservée: {}", e.getMessage());
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.set(null);
+                }
+            });
+            return created;
+        }
+    }
+
+    private static final class Entry {
+        private final List<GymDTO> gyms;
+        private final Instant fetchedAt;
+
+        private Entry(List<GymDTO> gyms, Instant fetchedAt) {
+            this.gyms = gyms;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
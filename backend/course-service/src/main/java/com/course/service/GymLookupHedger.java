@@ -0,0 +1,323 @@
+package com.course.service;
+
+import com.course.client.DeadlineExceededException;
+import com.course.client.RequestDeadline;
+import com.course.config.TaskExecutors;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Requêtes couvertes (hedging) pour les lectures vers le Gym Service
+ * Si l'appel n'a pas répondu après le percentile observé (gym-service.hedging.percentile),
+ * un doublon est envoyé: la première réponse réussie est retenue, l'autre appel va à son terme
+ * (un appel HTTP bloquant ne s'interrompt pas) et son résultat est ignoré
+ * Un budget (gym-service.hedging.budget-ratio) limite les doublons à une fraction des appels
+ * Chaque doublon prend un permis du bulkhead gym-service, rendu quand les deux appels sont terminés:
+ * le nombre d'appels HTTP simultanés ne dépasse pas max-concurrent-calls
+ * Le pool est borné sans file d'attente: pool saturé, l'appel s'exécute sans doublon sur le thread appelant
+ */
+@Component
+public class GymLookupHedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(GymLookupHedger.class);
+
+    // Nombre de latences conservées par opération pour le calcul du seuil
+    private static final int WINDOW_SIZE = 1000;
+    // Le seuil est recalculé toutes les N mesures
+    private static final int RECOMPUTE_EVERY = 50;
+    // Jetons exprimés en millièmes pour rester en arithmétique entière
+    private static final long TOKEN = 1000;
+
+    @Value("${gym-service.hedging.enabled:false}")
+    private boolean enabled;
+
+    @Value("${gym-service.hedging.percentile:0.95}")
+    private double percentile;
+
+    @Value("${gym-service.hedging.min-delay-ms:20}")
+    private long minDelayMs;
+
+    @Value("${gym-service.hedging.max-delay-ms:2000}")
+    private long maxDelayMs;
+
+    // Nombre de mesures requises avant d'utiliser le percentile (max-delay-ms sinon)
+    @Value("${gym-service.hedging.min-samples:20}")
+    private int minSamples;
+
+    // Fraction des appels pouvant être doublés (0.1 = au plus 10% de charge supplémentaire)
+    @Value("${gym-service.hedging.budget-ratio:0.1}")
+    private double budgetRatio;
+
+    // Doublons consécutifs autorisés quand le budget est plein
+    @Value("${gym-service.hedging.budget-burst:10}")
+    private int budgetBurst;
+
+    // 0: deux threads par appel autorisé par le bulkhead gym-service (appel initial et doublon)
+    @Value("${gym-service.hedging.pool-size:0}")
+    private int poolSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    private TaskExecutors taskExecutors;
+
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+    private final AtomicLong budgetTokens = new AtomicLong();
+
+    private Bulkhead bulkhead;
+
+    private ExecutorService executor;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        bulkhead = bulkheadRegistry.bulkhead(GymServiceGuard.INSTANCE);
+        int threads = poolSize > 0 ? poolSize : 2 * bulkhead.getBulkheadConfig().getMaxConcurrentCalls();
+        executor = taskExecutors.newBoundedExecutor("gym-hedge-", threads);
+        budgetTokens.set(budgetBurst * TOKEN);
+        logger.info("Hedging des appels Gym Service activé (p{}, budget {}%, {} threads)",
+            percentile * 100, budgetRatio * 100, threads);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Exécute l'appel, avec un doublon si la réponse tarde au-delà du seuil adaptatif
+     * Sans hedging activé, l'appel est exécuté directement sur le thread appelant
+     */
+    public <T> T call(String operation, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        LatencyWindow window = windows.computeIfAbsent(operation, key -> new LatencyWindow());
+        depositBudget();
+
+        // L'échéance de la requête suit l'appel sur les threads du pool
+        Long deadline = RequestDeadline.get();
+        HedgedCall attempts = new HedgedCall();
+        Callable<T> pooledCall = () -> {
+            RequestDeadline.set(deadline);
+            try {
+                return call.get();
+            } finally {
+                RequestDeadline.clear();
+                attempts.finished();
+            }
+        };
+
+        // Latence de la lecture logique, mesurée depuis le premier envoi: un doublon gagnant compte
+        // pour le temps total, pas pour son seul trajet (le percentile ne dérive pas vers le bas)
+        long start = System.nanoTime();
+        ExecutorCompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        List<Future<T>> futures = new ArrayList<>(2);
+        try {
+            futures.add(completion.submit(pooledCall));
+        } catch (RejectedExecutionException e) {
+            countHedge(operation, "rejected");
+            return call.get();
+        }
+        try {
+            Future<T> done = completion.poll(Math.min(window.thresholdMs(), RequestDeadline.remainingMillis()),
+                TimeUnit.MILLISECONDS);
+            if (done == null && RequestDeadline.isExpired()) {
+                window.record(elapsedMs(start));
+                throw new DeadlineExceededException("Échéance dépassée en attente de " + operation);
+            }
+            if (done == null) {
+                if (!tryAcquireBudget()) {
+                    countHedge(operation, "budget_exhausted");
+                } else if (!bulkhead.tryAcquirePermission()) {
+                    countHedge(operation, "bulkhead_full");
+                } else {
+                    attempts.startHedge();
+                    try {
+                        futures.add(completion.submit(pooledCall));
+                        countHedge(operation, "sent");
+                        logger.debug("Appel {} lent: doublon envoyé après {} ms", operation, window.thresholdMs());
+                    } catch (RejectedExecutionException e) {
+                        attempts.finished();
+                        countHedge(operation, "rejected");
+                    }
+                }
+                done = awaitNext(completion, operation, window, start);
+            }
+
+            int remaining = futures.size();
+            while (true) {
+                remaining--;
+                try {
+                    T result = done.get();
+                    window.record(elapsedMs(start));
+                    if (futures.size() > 1 && done == futures.get(1)) {
+                        countHedge(operation, "won");
+                    }
+                    return result;
+                } catch (ExecutionException e) {
+                    if (remaining == 0) {
+                        throw unwrap(e);
+                    }
+                    // Un appel a échoué: on attend l'autre
+                    done = awaitNext(completion, operation, window, start);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Appel " + operation + " interrompu", e);
+        }
+    }
+
+    /**
+     * Attend le prochain appel terminé, sans dépasser l'échéance de la requête
+     * Échéance atteinte: le temps écoulé est enregistré (borne basse de la latence réelle)
+     */
+    private <T> Future<T> awaitNext(ExecutorCompletionService<T> completion, String operation,
+                                    LatencyWindow window, long start) throws InterruptedException {
+        if (!RequestDeadline.isSet()) {
+            return completion.take();
+        }
+        Future<T> done = completion.poll(Math.max(0, RequestDeadline.remainingMillis()), TimeUnit.MILLISECONDS);
+        if (done == null) {
+            window.record(elapsedMs(start));
+            throw new DeadlineExceededException("Échéance dépassée en attente de " + operation);
+        }
+        return done;
+    }
+
+    /**
+     * Chaque appel alimente le budget de budget-ratio jeton, dans la limite de budget-burst
+     */
+    private void depositBudget() {
+        long deposit = Math.round(budgetRatio * TOKEN);
+        long max = budgetBurst * TOKEN;
+        budgetTokens.updateAndGet(tokens -> Math.min(max, tokens + deposit));
+    }
+
+    /**
+     * Un doublon consomme un jeton entier
+     */
+    private boolean tryAcquireBudget() {
+        while (true) {
+            long tokens = budgetTokens.get();
+            if (tokens < TOKEN) {
+                return false;
+            }
+            if (budgetTokens.compareAndSet(tokens, tokens - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    private long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private void countHedge(String operation, String outcome) {
+        meterRegistry.counter("gym.client.hedges", "method", operation, "outcome", outcome).increment();
+    }
+
+    private RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+    }
+
+    /**
+     * Appels HTTP en cours d'une lecture logique
+     * Le permis du doublon est rendu quand les deux appels sont terminés: l'appelant (et le permis
+     * du GymServiceGuard) peut partir dès la première réponse, l'appel perdant reste couvert par ce permis
+     */
+    private class HedgedCall {
+
+        private final AtomicInteger running = new AtomicInteger(1);
+        private volatile boolean holdsPermit;
+
+        /**
+         * Enregistre le doublon avant sa soumission (le permis est déjà pris)
+         */
+        void startHedge() {
+            running.incrementAndGet();
+            holdsPermit = true;
+        }
+
+        void finished() {
+            if (running.decrementAndGet() == 0 && holdsPermit) {
+                bulkhead.onComplete();
+            }
+        }
+    }
+
+    /**
+     * Dernières latences d'une opération et seuil de hedging qui en découle
+     */
+    private class LatencyWindow {
+
+        private final long[] samples = new long[WINDOW_SIZE];
+        private int count;
+        private int next;
+        private volatile long thresholdMs = maxDelayMs;
+        // Verrou plutôt que synchronized: n'épingle pas le thread porteur d'un thread virtuel
+        private final ReentrantLock lock = new ReentrantLock();
+
+        long thresholdMs() {
+            return thresholdMs;
+        }
+
+        void record(long latencyMs) {
+            lock.lock();
+            try {
+                samples[next] = latencyMs;
+                next = (next + 1) % WINDOW_SIZE;
+                count = Math.min(count + 1, WINDOW_SIZE);
+                if (count >= minSamples && (count == minSamples || next % RECOMPUTE_EVERY == 0)) {
+                    long[] sorted = Arrays.copyOf(samples, count);
+                    Arrays.sort(sorted);
+                    int rank = (int) Math.ceil(percentile * count) - 1;
+                    long observed = sorted[Math.max(0, Math.min(count - 1, rank))];
+                    thresholdMs = Math.max(minDelayMs, Math.min(maxDelayMs, observed));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.course.service;
+
+import com.course.dto.GymDTO;
+import com.course.event.GymEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Réplique locale en mémoire des salles, indexée par gymId
+ * Chargée une fois depuis la liste complète du Gym Service, puis alimentée par les événements gym-events
+ * (GymReadModelListener, toutes les partitions sur chaque instance)
+ * Permet l'enrichissement et la validation des cours sans appel HTTP vers le Gym Service
+ */
+@Component
+public class GymReadModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(GymReadModel.class);
+
+    private final Map<String, GymDTO> gyms = new ConcurrentHashMap<>();
+
+    // Vrai dès que la liste complète des salles a été chargée
+    private volatile boolean loaded = false;
+
+    // Événements reçus pendant la lecture de l'instantané (null hors chargement), rejoués par-dessus celui-ci
+    private List<GymEvent> bufferedEvents;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Value("${gym-read-model.enabled:true}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isLoaded() {
+        return enabled && loaded;
+    }
+
+    public int size() {
+        return gyms.size();
+    }
+
+    /**
+     * Recherche une salle dans la réplique locale
+     */
+    public Optional<GymDTO> findById(String gymId) {
+        if (!enabled || gymId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(gyms.get(gymId));
+    }
+
+    /**
+     * Retourne toutes les salles connues localement
+     */
+    public List<GymDTO> findAll() {
+        return new ArrayList<>(gyms.values());
+    }
+
+    /**
+     * Complète la réplique avec une salle récupérée via Feign, tant que la liste complète n'est pas chargée
+     * Une fois chargée, seuls les événements la modifient: une réponse HTTP antérieure à un GYM_DELETED
+     * ne doit pas faire réapparaître la salle
+     */
+    public void put(GymDTO gym) {
+        if (enabled && !loaded && gym != null && gym.getId() != null) {
+            gyms.putIfAbsent(gym.getId(), gym);
+        }
+    }
+
+    /**
+     * Début de la lecture de l'instantané: les événements reçus jusqu'à completeSnapshot sont mis de côté
+     * Doit être appelé avant l'appel HTTP, une fois la position du consumer de la réplique fixée
+     * @return false si la réplique est déjà chargée ou un chargement déjà en cours
+     */
+    public boolean beginSnapshot() {
+        lock.lock();
+        try {
+            if (!enabled || loaded || bufferedEvents != null) {
+                return false;
+            }
+            bufferedEvents = new ArrayList<>();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Installe la liste complète des salles puis rejoue les événements reçus pendant sa lecture
+     * Un événement déjà pris en compte par l'instantané est réappliqué sans effet sur l'état final
+     */
+    public void completeSnapshot(Collection<GymDTO> allGyms) {
+        lock.lock();
+        try {
+            if (bufferedEvents == null) {
+                return;
+            }
+            Map<String, GymDTO> snapshot = new ConcurrentHashMap<>();
+            allGyms.stream()
+                .filter(gym -> gym.getId() != null)
+                .forEach(gym -> snapshot.put(gym.getId(), gym));
+            gyms.keySet().retainAll(snapshot.keySet());
+            gyms.putAll(snapshot);
+            bufferedEvents.forEach(this::applyNow);
+            logger.info("Réplique locale des salles chargée: {} salles ({} événements rejoués)",
+                gyms.size(), bufferedEvents.size());
+            bufferedEvents = null;
+            loaded = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Échec de lecture de l'instantané: les événements mis de côté sont appliqués, un nouveau chargement reste possible
+     */
+    public void abortSnapshot() {
+        lock.lock();
+        try {
+            if (bufferedEvents != null) {
+                bufferedEvents.forEach(this::applyNow);
+                bufferedEvents = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applique un événement du Gym Service à la réplique locale
+     * Les événements d'une même salle arrivent dans l'ordre (clé Kafka = gymId)
+     */
+    public void apply(GymEvent event) {
+        if (!enabled || event.getGymId() == null || event.getEventType() == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (bufferedEvents != null) {
+                bufferedEvents.add(event);
+            } else {
+                applyNow(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void applyNow(GymEvent event) {
+        switch (event.getEventType()) {
+            case GYM_CREATED:
+            case GYM_UPDATED:
+                gyms.compute(event.getGymId(), (id, existing) -> merge(existing, event));
+                break;
+
+            case GYM_CAPACITY_CHANGED:
+                gyms.computeIfPresent(event.getGymId(), (id, existing) -> {
+                    GymDTO updated = copy(existing);
+                    updated.setCapacity(event.getCapacity());
+                    return updated;
+                });
+                break;
+
+            case GYM_DELETED:
+                gyms.remove(event.getGymId());
+                break;
+
+            default:
+                logger.warn("Type d'événement GYM ignoré par la réplique locale: {}", event.getEventType());
+        }
+        logger.debug("Réplique locale mise à jour ({}) pour la salle {}", event.getEventType(), event.getGymId());
+    }
+
+    /**
+     * Fusionne les champs portés par l'événement avec la version connue de la salle
+     */
+    private GymDTO merge(GymDTO existing, GymEvent event) {
+        GymDTO merged = existing != null ? copy(existing) : new GymDTO();
+        merged.setId(event.getGymId());
+        merged.setName(event.getGymName());
+        if (event.getGymLocation() != null) {
+            merged.setLocation(event.getGymLocation());
+        }
+        if (event.getGymEmail() != null) {
+            merged.setEmail(event.getGymEmail());
+        }
+        if (event.getCapacity() != null) {
+            merged.setCapacity(event.getCapacity());
+        }
+        return merged;
+    }
+
+    private GymDTO copy(GymDTO source) {
+        GymDTO copy = new GymDTO(source.getId(), source.getName(), source.getLocation());
+        copy.setPhone(source.getPhone());
+        copy.setEmail(source.getEmail());
+        copy.setCapacity(source.getCapacity());
+        return copy;
+    }
+}
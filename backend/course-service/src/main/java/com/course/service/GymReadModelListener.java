@@ -0,0 +1,78 @@
+package com.course.service;
+
+import com.course.event.GymEvent;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alimente la réplique locale des salles depuis gym-events
+ * Groupe de consommateurs propre à l'instance (gymReadModelConsumerFactory): chaque instance reçoit
+ * toutes les partitions, indépendamment du groupe course-service-group qui répartit les traitements métier
+ */
+@Component
+public class GymReadModelListener implements ConsumerAwareRebalanceListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(GymReadModelListener.class);
+
+    @Autowired
+    private GymReadModel gymReadModel;
+
+    // Ouvert une fois la position de lecture fixée sur toutes les partitions assignées
+    private final CountDownLatch positioned = new CountDownLatch(1);
+
+    @KafkaListener(
+        id = "gymReadModelListener",
+        idIsGroup = false,
+        topics = KafkaConsumerService.GYM_EVENTS_TOPIC,
+        containerFactory = "gymReadModelKafkaListenerContainerFactory",
+        autoStartup = "${gym-read-model.enabled:true}"
+    )
+    public void onGymEvent(ConsumerRecord<String, GymEvent> record) {
+        GymEvent gymEvent = record.value();
+        if (gymEvent == null) {
+            logger.warn("Événement GYM illisible ignoré par la réplique - Partition: {}, Offset: {}",
+                record.partition(), record.offset());
+            return;
+        }
+        gymReadModel.apply(gymEvent);
+    }
+
+    /**
+     * Résout la position (fin de partition) dès l'assignation: tout événement publié ensuite sera lu,
+     * l'instantané HTTP peut alors être demandé sans perdre les événements intermédiaires
+     */
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        partitions.forEach(consumer::position);
+        logger.info("Réplique des salles positionnée sur {} partitions de {}",
+            partitions.size(), KafkaConsumerService.GYM_EVENTS_TOPIC);
+        positioned.countDown();
+    }
+
+    public boolean isPositioned() {
+        return positioned.getCount() == 0;
+    }
+
+    /**
+     * Attend l'assignation des partitions de la réplique (au plus timeoutMs)
+     */
+    public boolean awaitPositioned(long timeoutMs) {
+        try {
+            return positioned.await(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
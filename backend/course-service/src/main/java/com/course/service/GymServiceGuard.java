@@ -0,0 +1,141 @@
+package com.course.service;
+
+import com.course.client.RequestDeadline;
+import com.course.config.TaskExecutors;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Protection des appels vers le Gym Service (instances Resilience4j "gym-service"):
+ * CircuitBreaker(RateLimiter(Bulkhead(TimeLimiter(appel))))
+ * - RateLimiter: nombre d'appels par période côté client
+ * - Bulkhead (sémaphore): appels simultanés bornés, les appels en trop sont refusés immédiatement
+ *   au lieu d'immobiliser les threads Tomcat; le permis est rendu par la tâche du pool à la fin de
+ *   l'appel Feign, y compris quand l'appelant a cessé d'attendre (délai dépassé)
+ * - TimeLimiter: l'appel s'exécute sur un pool dédié, l'appelant n'attend pas au-delà du délai
+ * Les refus locaux (bulkhead plein, rate limiter) sont ignorés par le Circuit Breaker (ignore-exceptions):
+ * seuls les résultats réels des appels au Gym Service peuvent l'ouvrir
+ * Les paramètres sont lus depuis resilience4j.*.instances.gym-service (application.properties)
+ */
+@Component
+public class GymServiceGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(GymServiceGuard.class);
+
+    public static final String INSTANCE = "gym-service";
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    private RateLimiterRegistry rateLimiterRegistry;
+
+    @Autowired
+    private TimeLimiterRegistry timeLimiterRegistry;
+
+    @Autowired
+    private TaskExecutors taskExecutors;
+
+    private Bulkhead bulkhead;
+    private RateLimiter rateLimiter;
+    private TimeLimiter timeLimiter;
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        bulkhead = bulkheadRegistry.bulkhead(INSTANCE);
+        rateLimiter = rateLimiterRegistry.rateLimiter(INSTANCE);
+        timeLimiter = timeLimiterRegistry.timeLimiter(INSTANCE);
+
+        // Chaque tâche tient un permis du bulkhead jusqu'à la fin de l'appel: le pool n'exécute jamais plus
+        // de maxConcurrentCalls appels, la marge couvre seulement la fin des threads qui rendent leur permis
+        // (en mode threads virtuels: un thread par appel, seul le bulkhead limite la concurrence)
+        int maxConcurrentCalls = bulkhead.getBulkheadConfig().getMaxConcurrentCalls();
+        executor = taskExecutors.isVirtualThreads()
+            ? taskExecutors.newExecutor("gym-call-", maxConcurrentCalls)
+            : new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls * 2,
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), taskExecutors.threadFactory("gym-call-"));
+        logger.info("Appels Gym Service protégés: bulkhead {} appels, rate limiter {}/{}, time limiter {}",
+            maxConcurrentCalls,
+            rateLimiter.getRateLimiterConfig().getLimitForPeriod(),
+            rateLimiter.getRateLimiterConfig().getLimitRefreshPeriod(),
+            timeLimiter.getTimeLimiterConfig().getTimeoutDuration());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Exécute l'appel derrière le Circuit Breaker, le rate limiter, le bulkhead et le time limiter
+     * Refus et dépassements sont levés en RuntimeException (CallNotPermittedException,
+     * RequestNotPermitted, BulkheadFullException, cause TimeoutException) pour le fallback de l'appelant
+     */
+    public <T> T call(String operation, Supplier<T> call) {
+        // L'échéance de la requête suit l'appel sur le pool dédié
+        Long deadline = RequestDeadline.get();
+        Callable<T> guarded = TimeLimiter.decorateFutureSupplier(timeLimiter, () -> submit(deadline, call));
+        guarded = RateLimiter.decorateCallable(rateLimiter, guarded);
+        guarded = CircuitBreaker.decorateCallable(circuitBreakerRegistry.circuitBreaker(INSTANCE), guarded);
+
+        try {
+            return guarded.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Délai dépassé pour " + operation, e);
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur lors de l'appel " + operation, e);
+        }
+    }
+
+    /**
+     * Soumet l'appel au pool sous un permis du bulkhead, pris avant la soumission et rendu par la tâche
+     * Pool saturé: refus levé en BulkheadFullException (même traitement qu'un bulkhead plein)
+     */
+    private <T> Future<T> submit(Long deadline, Supplier<T> call) {
+        bulkhead.acquirePermission();
+        try {
+            return executor.submit(() -> {
+                RequestDeadline.set(deadline);
+                try {
+                    return call.get();
+                } finally {
+                    RequestDeadline.clear();
+                    bulkhead.onComplete();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            bulkhead.onComplete();
+            logger.warn("Pool d'appels Gym Service saturé, appel refusé");
+            throw BulkheadFullException.createBulkheadFullException(bulkhead);
+        }
+    }
+}
@@ -2,15 +2,32 @@ package com.course.service;
 
 import com.course.event.GymEvent;
 import com.course.repository.CourseRepository;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.SerializationUtils;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Service pour consommer des messages Kafka
@@ -21,12 +38,31 @@ public class KafkaConsumerService {
 
     private static final Logger logger = LoggerFactory.getLogger(KafkaConsumerService.class);
 
+    // Topics Kafka
+    public static final String GYM_EVENTS_TOPIC = "gym-events";
+    public static final String GYM_EVENTS_DLT_TOPIC = GYM_EVENTS_TOPIC + "-dlt";
+
     @Autowired
     private CourseRepository courseRepository;
 
     @Autowired
     private KafkaProducerService kafkaProducerService;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private GymEventParallelProcessor parallelProcessor;
+
+    @Autowired
+    private GymEventRetryRouter gymEventRetryRouter;
+
+    @Autowired
+    private GymCascadeService gymCascadeService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     /**
      * Consommer les messages STRING des notifications Gym
      */
@@ -52,6 +88,7 @@ public class KafkaConsumerService {
             
             // Acquittement manuel
             acknowledgment.acknowledge();
+            countAck(topic);
             logger.info("Notification GYM traitée avec succès");
             
         } catch (Exception e) {
@@ -62,11 +99,29 @@ public class KafkaConsumerService {
 
     /**
      * Consommer les événements OBJET du Gym Service
+     * Un échec part vers gym-events-retry-N (délai exponentiel) puis gym-events-dlt, sans bloquer la partition
+     * Un message illisible part directement en dead letter
      */
+    @RetryableTopic(
+        attempts = "${course.kafka.gym-events.retry.attempts:4}",
+        backoff = @Backoff(
+            delayExpression = "${course.kafka.gym-events.retry.initial-delay-ms:1000}",
+            multiplierExpression = "${course.kafka.gym-events.retry.multiplier:2.0}",
+            maxDelayExpression = "${course.kafka.gym-events.retry.max-delay-ms:30000}"),
+        retryTopicSuffix = "-retry",
+        dltTopicSuffix = "-dlt",
+        topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+        autoCreateTopics = "true",
+        numPartitions = "3",
+        replicationFactor = "1",
+        kafkaTemplate = "gymEventRetryKafkaTemplate"
+    )
     @KafkaListener(
-        topics = "gym-events",
+        id = "gymEventListener",
+        topics = GYM_EVENTS_TOPIC,
         groupId = "course-service-group",
-        containerFactory = "gymEventKafkaListenerContainerFactory"
+        containerFactory = "gymEventKafkaListenerContainerFactory",
+        autoStartup = "#{'${course.kafka.gym-events.listener-mode:single}' == 'single'}"
     )
     public void consumeGymEvent(
             @Payload GymEvent gymEvent,
@@ -85,11 +140,188 @@ public class KafkaConsumerService {
             
             // Acquittement manuel
             acknowledgment.acknowledge();
+            countAck(topic);
             logger.info("Événement GYM traité avec succès: {}", gymEvent.getEventType());
             
         } catch (Exception e) {
             logger.error("Erreur lors du traitement de l'événement GYM: {}", e.getMessage(), e);
-            // En cas d'erreur critique, on peut choisir de ne pas acquitter
+            // Relancer: le message est republié sur le topic de retry suivant
+            throw e;
+        }
+    }
+
+    /**
+     * Événements GYM épuisés (retries) ou illisibles: journalisés, rejouables via /api/kafka/dead-letters
+     */
+    @DltHandler
+    public void handleGymEventDeadLetter(ConsumerRecord<String, GymEvent> record, Acknowledgment acknowledgment) {
+        logger.error("Événement GYM en dead letter - Topic: {}, Partition: {}, Offset: {}, Key: {}",
+            record.topic(), record.partition(), record.offset(), record.key());
+        acknowledgment.acknowledge();
+        countAck(record.topic());
+    }
+
+    /**
+     * Consommer les événements du Gym Service par lots (course.kafka.gym-events.listener-mode=batch)
+     * Les événements sont regroupés par salle: une seule requête par salle distincte, un commit d'offsets par lot
+     * En cas d'erreur, les messages précédant la salle fautive sont validés; ses messages et les suivants
+     * sont relivrés, puis le message fautif seul part en dead letter une fois les reprises épuisées
+     */
+    @KafkaListener(
+        id = "gymEventBatchListener",
+        topics = GYM_EVENTS_TOPIC,
+        groupId = "course-service-group",
+        containerFactory = "gymEventBatchKafkaListenerContainerFactory",
+        autoStartup = "#{'${course.kafka.gym-events.listener-mode:single}' == 'batch'}"
+    )
+    public void consumeGymEventBatch(List<ConsumerRecord<String, GymEvent>> records) {
+        logger.info("Lot d'événements GYM reçu: {} messages", records.size());
+
+        // Message illisible: valider les précédents, envoyer celui-ci en dead letter, relivrer les suivants
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, GymEvent> record = records.get(i);
+            if (record.value() == null
+                    && record.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null) {
+                throw new BatchListenerFailedException("Événement GYM illisible", i);
+            }
+        }
+
+        Map<String, GymBatchChanges> changesByGym = new LinkedHashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, GymEvent> record = records.get(i);
+            GymEvent gymEvent = record.value();
+            if (gymEvent == null || gymEvent.getGymId() == null || gymEvent.getEventType() == null) {
+                logger.warn("Événement GYM ignoré - Partition: {}, Offset: {}", record.partition(), record.offset());
+                continue;
+            }
+            int index = i;
+            changesByGym.computeIfAbsent(gymEvent.getGymId(), id -> new GymBatchChanges(index)).add(gymEvent);
+        }
+
+        // Une transaction par salle, dans l'ordre de première apparition: en cas d'échec, tous les messages
+        // précédant le premier message de la salle fautive sont appliqués, seuls les suivants sont relivrés
+        Timer.Sample sample = Timer.start(meterRegistry);
+        for (GymBatchChanges changes : changesByGym.values()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> applyGymBatchChanges(changes));
+            } catch (RuntimeException e) {
+                throw new BatchListenerFailedException("Échec de l'application du lot GYM", e, changes.firstIndex);
+            }
+        }
+        sample.stop(Timer.builder("course.gym-events.batch.processing")
+            .description("Durée d'application d'un lot d'événements GYM")
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+
+        records.stream()
+            .map(ConsumerRecord::value)
+            .filter(gymEvent -> gymEvent != null)
+            .forEach(this::recordEndToEndLatency);
+        meterRegistry.counter("course.kafka.listener.batches", "topic", GYM_EVENTS_TOPIC).increment();
+
+        logger.info("Lot d'événements GYM traité: {} messages, {} salles", records.size(), changesByGym.size());
+    }
+
+    /**
+     * Consommer les événements du Gym Service en parallèle (course.kafka.gym-events.listener-mode=parallel)
+     * Chaque salle est traitée par un worker dédié: ordre conservé par salle, salles indépendantes en parallèle
+     * Les GYM_UPDATED remplacés par une mise à jour plus récente de la même salle dans le lot sont ignorés
+     */
+    @KafkaListener(
+        id = GymEventParallelProcessor.LISTENER_ID,
+        topics = GYM_EVENTS_TOPIC,
+        groupId = "course-service-group",
+        containerFactory = "gymEventParallelKafkaListenerContainerFactory",
+        autoStartup = "#{'${course.kafka.gym-events.listener-mode:single}' == 'parallel'}"
+    )
+    public void consumeGymEventsInParallel(List<ConsumerRecord<String, GymEvent>> records, Consumer<?, ?> consumer) {
+        logger.debug("Lot d'événements GYM distribué aux workers: {} messages", records.size());
+        parallelProcessor.dispatch(records, consumer, this::processGymEvent);
+    }
+
+    /**
+     * Reprises des événements GYM en mode parallel (gym-events-retry-N, publiées par GymEventRetryRouter)
+     * Un nouvel échec part sur le topic de retry suivant ou en dead letter; si cet envoi échoue,
+     * l'exception remonte et l'offset n'est pas validé
+     */
+    @KafkaListener(
+        id = "gymEventParallelRetryListener",
+        topicPattern = GymEventRetryRouter.RETRY_TOPIC_PREFIX + "\\d+",
+        groupId = "course-service-group-parallel-retry",
+        containerFactory = "gymEventParallelRetryKafkaListenerContainerFactory",
+        autoStartup = "#{'${course.kafka.gym-events.listener-mode:single}' == 'parallel'}"
+    )
+    public void consumeGymEventRetry(ConsumerRecord<String, GymEvent> record) throws InterruptedException {
+        gymEventRetryRouter.awaitDue(record);
+        GymEvent gymEvent = record.value();
+        try {
+            if (gymEvent == null) {
+                throw new IllegalStateException("Événement GYM illisible");
+            }
+            if (gymEvent.getEventType() != null) {
+                processGymEvent(gymEvent);
+            }
+            countAck(record.topic());
+        } catch (Exception e) {
+            logger.error("Nouvel échec de l'événement GYM - Topic: {}, Offset: {}: {}",
+                record.topic(), record.offset(), e.getMessage());
+            gymEventRetryRouter.route(record, e);
+        }
+    }
+
+    /**
+     * Applique l'état final d'une salle après un lot d'événements
+     */
+    private void applyGymBatchChanges(GymBatchChanges changes) {
+        if (changes.created != null) {
+            handleGymCreated(changes.created);
+        }
+        if (changes.deleted != null) {
+            handleGymDeleted(changes.deleted);
+            return;
+        }
+        if (changes.updated != null) {
+            handleGymUpdated(changes.updated);
+        }
+        if (changes.capacityChanged != null) {
+            handleGymCapacityChanged(changes.capacityChanged);
+        }
+    }
+
+    /**
+     * Derniers événements significatifs d'une salle au sein d'un lot
+     */
+    private static class GymBatchChanges {
+        // Index du premier message de la salle dans le lot
+        private final int firstIndex;
+        private GymEvent created;
+        private GymEvent updated;
+        private GymEvent deleted;
+        private GymEvent capacityChanged;
+
+        GymBatchChanges(int firstIndex) {
+            this.firstIndex = firstIndex;
+        }
+
+        void add(GymEvent gymEvent) {
+            switch (gymEvent.getEventType()) {
+                case GYM_CREATED:
+                    created = gymEvent;
+                    deleted = null;
+                    break;
+                case GYM_UPDATED:
+                    updated = gymEvent;
+                    deleted = null;
+                    break;
+                case GYM_DELETED:
+                    deleted = gymEvent;
+                    break;
+                case GYM_CAPACITY_CHANGED:
+                    capacityChanged = gymEvent;
+                    break;
+                default:
+                    logger.warn("Type d'événement GYM non géré: {}", gymEvent.getEventType());
+            }
         }
     }
 
@@ -111,9 +343,53 @@ public class KafkaConsumerService {
      * Traiter un événement de salle
      */
     private void processGymEvent(GymEvent gymEvent) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            applyGymEvent(gymEvent);
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("course.gym-events.processing")
+                .description("Durée de traitement d'un événement GYM")
+                .tag("eventType", String.valueOf(gymEvent.getEventType()))
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+            recordEndToEndLatency(gymEvent);
+        }
+    }
+
+    /**
+     * Latence de bout en bout: de la création de l'événement (GymEvent.timestamp) à la fin de son traitement
+     */
+    private void recordEndToEndLatency(GymEvent gymEvent) {
+        if (gymEvent.getTimestamp() == null) {
+            return;
+        }
+        Duration latency = Duration.between(gymEvent.getTimestamp(), LocalDateTime.now());
+        if (!latency.isNegative()) {
+            Timer.builder("course.gym-events.end-to-end")
+                .description("Délai entre la publication d'un événement GYM et la fin de son traitement")
+                .tag("eventType", String.valueOf(gymEvent.getEventType()))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(latency);
+        }
+    }
+
+    private void countAck(String topic) {
+        meterRegistry.counter("course.kafka.listener.acks", "topic", topic).increment();
+    }
+
+    /**
+     * Applique un événement de salle
+     */
+    private void applyGymEvent(GymEvent gymEvent) {
         logger.info("Traitement événement {} pour salle {} ({})", 
             gymEvent.getEventType(), gymEvent.getGymId(), gymEvent.getGymName());
-        
+
         switch (gymEvent.getEventType()) {
             case GYM_CREATED:
                 handleGymCreated(gymEvent);
@@ -142,8 +418,8 @@ public class KafkaConsumerService {
     private void handleGymCreated(GymEvent gymEvent) {
         logger.info("Nouvelle salle créée: {} ({})", gymEvent.getGymName(), gymEvent.getGymId());
         
+        // La réplique locale des salles (GymReadModel) est déjà à jour
         // Ici on pourrait:
-        // - Mettre à jour un cache local des salles
         // - Envoyer des notifications aux utilisateurs
         // - Déclencher des processus métier
         
@@ -154,26 +430,22 @@ public class KafkaConsumerService {
 
     /**
      * Gérer la mise à jour d'une salle
+     * Un échec est propagé: l'événement n'est pas acquitté et part en reprise (retry puis dead letter)
      */
     private void handleGymUpdated(GymEvent gymEvent) {
         logger.info("Salle mise à jour: {} ({})", gymEvent.getGymName(), gymEvent.getGymId());
         
-        // IMPORTANT: Mettre à jour le nom de la salle dans tous les cours associés
-        try {
-            int updatedCourses = courseRepository.findByGymId(gymEvent.getGymId()).size();
+        // IMPORTANT: Mettre à jour le nom de la salle dans tous les cours associés (un seul UPDATE)
+        int updatedCourses = courseRepository.updateGymNameByGymId(gymEvent.getGymId(), gymEvent.getGymName());
+        
+        if (updatedCourses > 0) {
+            logger.info("Nom de salle mis à jour pour {} cours: {} -> {}", 
+                updatedCourses, gymEvent.getGymId(), gymEvent.getGymName());
             
-            if (updatedCourses > 0) {
-                courseRepository.updateGymNameByGymId(gymEvent.getGymId(), gymEvent.getGymName());
-                logger.info("Nom de salle mis à jour pour {} cours: {} -> {}", 
-                    updatedCourses, gymEvent.getGymId(), gymEvent.getGymName());
-                
-                // Publier une notification de synchronisation
-                kafkaProducerService.sendNotification("sync", 
-                    String.format("Nom de salle synchronisé pour %d cours: %s", 
-                        updatedCourses, gymEvent.getGymName()));
-            }
-        } catch (Exception e) {
-            logger.error("Erreur lors de la mise à jour du nom de salle pour les cours: {}", e.getMessage());
+            // Publier une notification de synchronisation
+            kafkaProducerService.sendNotification("sync", 
+                String.format("Nom de salle synchronisé pour %d cours: %s", 
+                    updatedCourses, gymEvent.getGymName()));
         }
     }
 
@@ -183,33 +455,9 @@ public class KafkaConsumerService {
     private void handleGymDeleted(GymEvent gymEvent) {
         logger.warn("Salle supprimée: {} ({})", gymEvent.getGymName(), gymEvent.getGymId());
         
-        // IMPORTANT: Désassocier tous les cours de cette salle
-        var coursesToUpdate = courseRepository.findByGymId(gymEvent.getGymId());
-        
-        if (!coursesToUpdate.isEmpty()) {
-            logger.info("Désassociation de {} cours de la salle supprimée: {}", 
-                coursesToUpdate.size(), gymEvent.getGymName());
-            
-            // Publier les événements de désassociation pour chaque cours
-            coursesToUpdate.forEach(course -> {
-                kafkaProducerService.publishCourseUnassignedFromGym(
-                    course.getId(), 
-                    course.getTitle(), 
-                    gymEvent.getGymId(), 
-                    gymEvent.getGymName()
-                );
-            });
-            
-            // Supprimer les associations en base
-            courseRepository.removeGymAssociationByGymId(gymEvent.getGymId());
-            
-            logger.info("Tous les cours ont été désassociés de la salle supprimée: {}", gymEvent.getGymName());
-            
-            // Notification globale
-            kafkaProducerService.sendNotification("system", 
-                String.format("Salle supprimée: %s - %d cours désassociés", 
-                    gymEvent.getGymName(), coursesToUpdate.size()));
-        }
+        // IMPORTANT: Désassocier tous les cours de cette salle, par lots keyset
+        // (un événement COURSES_UNASSIGNED_FROM_GYM par lot, reprise possible après redémarrage)
+        gymCascadeService.unassignCourses(gymEvent.getGymId(), gymEvent.getGymName());
     }
 
     /**
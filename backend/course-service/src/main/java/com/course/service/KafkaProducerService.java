@@ -1,18 +1,32 @@
 package com.course.service;
 
+import com.course.dto.CourseDTO;
+import com.course.entity.OutboxEvent;
 import com.course.event.CourseEvent;
+import com.course.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service pour publier des messages Kafka depuis le Course Service
+ * Avec l'outbox activée, les messages sont écrits dans la transaction de l'appelant
+ * et publiés de manière asynchrone par OutboxRelay
  */
 @Service
 public class KafkaProducerService {
@@ -23,22 +37,53 @@ public class KafkaProducerService {
     public static final String COURSE_EVENTS_TOPIC = "course-events";
     public static final String COURSE_NOTIFICATIONS_TOPIC = "course-notifications";
 
+    /**
+     * LEGACY: un événement par aspect (mise à jour, désassignation, assignation) et une notification chacun
+     * COMPOSITE: un seul COURSE_CHANGED et une seule notification récapitulative par opération
+     */
+    public enum PublishingMode {
+        LEGACY,
+        COMPOSITE
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Autowired
     private KafkaTemplate<String, String> stringKafkaTemplate;
 
     @Autowired
     private KafkaTemplate<String, CourseEvent> courseEventKafkaTemplate;
 
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${course.outbox.enabled:true}")
+    private boolean outboxEnabled;
+
+    @Value("${course.events.publishing-mode:LEGACY}")
+    private PublishingMode publishingMode;
+
     /**
      * Publier un message STRING
      */
     public void sendStringMessage(String topic, String key, String message) {
         logger.info("Envoi message STRING vers topic '{}' avec clé '{}': {}", topic, key, message);
+
+        if (outboxEnabled) {
+            outboxRepository.save(new OutboxEvent(topic, key, OutboxEvent.PayloadType.STRING, message));
+            return;
+        }
         
+        long startNanos = System.nanoTime();
         CompletableFuture<SendResult<String, String>> future = 
             stringKafkaTemplate.send(topic, key, message);
         
         future.whenComplete((result, exception) -> {
+            recordSend(topic, startNanos, exception);
             if (exception == null) {
                 logger.info("Message STRING envoyé avec succès: offset={}, partition={}", 
                     result.getRecordMetadata().offset(), 
@@ -55,12 +100,21 @@ public class KafkaProducerService {
     public void sendCourseEvent(CourseEvent event) {
         logger.info("Envoi événement COURSE: {} pour cours {}", event.getEventType(), event.getCourseId());
         
-        String key = event.getCourseId().toString(); // Utiliser l'ID du cours comme clé
+        // Utiliser l'ID du cours comme clé (la salle pour les événements portant sur plusieurs cours)
+        String key = event.getCourseId() != null ? event.getCourseId().toString() : event.getGymId();
+
+        if (outboxEnabled) {
+            outboxRepository.save(new OutboxEvent(COURSE_EVENTS_TOPIC, key,
+                OutboxEvent.PayloadType.COURSE_EVENT, toJson(event)));
+            return;
+        }
         
+        long startNanos = System.nanoTime();
         CompletableFuture<SendResult<String, CourseEvent>> future = 
             courseEventKafkaTemplate.send(COURSE_EVENTS_TOPIC, key, event);
         
         future.whenComplete((result, exception) -> {
+            recordSend(COURSE_EVENTS_TOPIC, startNanos, exception);
             if (exception == null) {
                 logger.info("Événement COURSE envoyé avec succès: offset={}, partition={}", 
                     result.getRecordMetadata().offset(), 
@@ -155,4 +209,236 @@ public class KafkaProducerService {
         sendNotification(courseId.toString(), 
             String.format("Cours %s désassigné de la salle %s", courseName, gymName));
     }
-}
\ No newline at end of file
+
+    /**
+     * Publier la création d'un cours selon le mode de publication
+     */
+    public void publishCourseCreation(CourseDTO course) {
+        if (publishingMode == PublishingMode.COMPOSITE) {
+            sendChanged(toChangedEvent(course, CourseEvent.ChangeType.CREATED, null, null, "Nouveau cours créé"));
+            return;
+        }
+
+        publishCourseCreated(course.getId(), course.getTitle(), course.getInstructor(), course.getGymId(),
+            course.getGymName(), course.getMaxParticipants(), course.getPrice(), course.getLevel());
+
+        // Si le cours est assigné à une salle, publier l'événement d'assignation
+        if (course.getGymId() != null && course.getGymName() != null) {
+            publishCourseAssignedToGym(course.getId(), course.getTitle(), course.getGymId(), course.getGymName());
+        }
+    }
+
+    /**
+     * Publier la mise à jour d'un cours selon le mode de publication
+     * previousGymId / previousGymName: assignation de salle avant la mise à jour
+     */
+    public void publishCourseModification(CourseDTO course, String previousGymId, String previousGymName) {
+        if (publishingMode == PublishingMode.COMPOSITE) {
+            sendChanged(toChangedEvent(course, CourseEvent.ChangeType.UPDATED,
+                previousGymId, previousGymName, "Cours mis à jour"));
+            return;
+        }
+
+        publishCourseUpdated(course.getId(), course.getTitle(), course.getInstructor(), course.getGymId(),
+            course.getGymName(), course.getMaxParticipants(), course.getPrice(), course.getLevel());
+
+        // Gérer les changements d'assignation de salle
+        if (!Objects.equals(previousGymId, course.getGymId())) {
+            if (previousGymId != null) {
+                publishCourseUnassignedFromGym(course.getId(), course.getTitle(), previousGymId, previousGymName);
+            }
+            if (course.getGymId() != null) {
+                publishCourseAssignedToGym(course.getId(), course.getTitle(), course.getGymId(), course.getGymName());
+            }
+        }
+    }
+
+    /**
+     * Publier la suppression d'un cours selon le mode de publication
+     */
+    public void publishCourseDeletion(CourseDTO course) {
+        if (publishingMode == PublishingMode.COMPOSITE) {
+            CourseEvent event = toChangedEvent(course, CourseEvent.ChangeType.DELETED,
+                course.getGymId(), course.getGymName(), "Cours supprimé");
+            event.setGymId(null);
+            event.setGymName(null);
+            sendChanged(event);
+            return;
+        }
+
+        publishCourseDeleted(course.getId(), course.getTitle());
+
+        // Si le cours était assigné à une salle, publier l'événement de désassignation
+        if (course.getGymId() != null) {
+            publishCourseUnassignedFromGym(course.getId(), course.getTitle(), course.getGymId(), course.getGymName());
+        }
+    }
+
+    /**
+     * Publier la désassignation d'une plage de cours d'une salle supprimée (un événement par lot)
+     */
+    public void publishCoursesUnassignedFromGym(String gymId, String gymName, Long courseIdFrom,
+                                                Long courseIdTo, int courseCount) {
+        CourseEvent event = new CourseEvent(null, null, CourseEvent.EventType.COURSES_UNASSIGNED_FROM_GYM);
+        event.setGymId(gymId);
+        event.setGymName(gymName);
+        event.setCourseIdFrom(courseIdFrom);
+        event.setCourseIdTo(courseIdTo);
+        event.setCourseCount(courseCount);
+        event.setDescription(String.format("%d cours désassignés de la salle: %s", courseCount, gymName));
+
+        sendCourseEvent(event);
+    }
+
+    /**
+     * Publier les événements d'une création groupée de cours
+     * Un événement par cours, une seule notification récapitulative pour tout le lot
+     */
+    public void publishCoursesCreated(List<CourseDTO> courses) {
+        if (publishingMode == PublishingMode.COMPOSITE) {
+            courses.forEach(course -> sendCourseEvent(
+                toChangedEvent(course, CourseEvent.ChangeType.CREATED, null, null, "Nouveau cours créé")));
+            sendNotification("batch", String.format("%d cours créés", courses.size()));
+            return;
+        }
+
+        courses.forEach(course -> {
+            sendCourseEvent(toCourseEvent(course, CourseEvent.EventType.COURSE_CREATED, "Nouveau cours créé"));
+
+            if (course.getGymId() != null && course.getGymName() != null) {
+                sendCourseEvent(toAssignmentEvent(course, CourseEvent.EventType.COURSE_ASSIGNED_TO_GYM,
+                    course.getGymId(), course.getGymName(), "Cours assigné à la salle: " + course.getGymName()));
+            }
+        });
+
+        sendNotification("batch", String.format("%d cours créés", courses.size()));
+    }
+
+    /**
+     * Publier les événements d'une mise à jour groupée de cours
+     * previousById contient l'état de chaque cours avant modification (pour les changements de salle)
+     */
+    public void publishCoursesUpdated(Map<Long, CourseDTO> previousById, List<CourseDTO> courses) {
+        if (publishingMode == PublishingMode.COMPOSITE) {
+            courses.forEach(course -> {
+                CourseDTO previous = previousById.get(course.getId());
+                sendCourseEvent(toChangedEvent(course, CourseEvent.ChangeType.UPDATED,
+                    previous != null ? previous.getGymId() : null,
+                    previous != null ? previous.getGymName() : null,
+                    "Cours mis à jour"));
+            });
+            sendNotification("batch", String.format("%d cours mis à jour", courses.size()));
+            return;
+        }
+
+        courses.forEach(course -> {
+            sendCourseEvent(toCourseEvent(course, CourseEvent.EventType.COURSE_UPDATED, "Cours mis à jour"));
+
+            CourseDTO previous = previousById.get(course.getId());
+            if (previous != null && !Objects.equals(previous.getGymId(), course.getGymId())) {
+                if (previous.getGymId() != null) {
+                    sendCourseEvent(toAssignmentEvent(course, CourseEvent.EventType.COURSE_UNASSIGNED_FROM_GYM,
+                        previous.getGymId(), previous.getGymName(), "Cours désassigné de la salle: " + previous.getGymName()));
+                }
+                if (course.getGymId() != null) {
+                    sendCourseEvent(toAssignmentEvent(course, CourseEvent.EventType.COURSE_ASSIGNED_TO_GYM,
+                        course.getGymId(), course.getGymName(), "Cours assigné à la salle: " + course.getGymName()));
+                }
+            }
+        });
+
+        sendNotification("batch", String.format("%d cours mis à jour", courses.size()));
+    }
+
+    private String toJson(CourseEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Impossible de sérialiser l'événement COURSE: " + e.getMessage(), e);
+        }
+    }
+
+    private CourseEvent toCourseEvent(CourseDTO course, CourseEvent.EventType eventType, String description) {
+        CourseEvent event = new CourseEvent(course.getId(), course.getTitle(), eventType);
+        event.setInstructor(course.getInstructor());
+        event.setGymId(course.getGymId());
+        event.setGymName(course.getGymName());
+        event.setMaxParticipants(course.getMaxParticipants());
+        event.setPrice(course.getPrice());
+        event.setLevel(course.getLevel());
+        event.setDescription(description);
+        return event;
+    }
+
+    /**
+     * Mode COMPOSITE: un COURSE_CHANGED et une seule notification décrivant toute l'opération
+     */
+    private void sendChanged(CourseEvent event) {
+        sendCourseEvent(event);
+        sendNotification(event.getCourseId().toString(), describeChange(event));
+    }
+
+    private String describeChange(CourseEvent event) {
+        String courseName = event.getCourseName();
+        switch (event.getChangeType()) {
+            case CREATED:
+                return event.getGymName() != null
+                    ? String.format("Cours créé: %s (salle %s)", courseName, event.getGymName())
+                    : "Cours créé: " + courseName;
+            case DELETED:
+                return event.getPreviousGymId() != null
+                    ? String.format("Cours supprimé: %s (désassigné de la salle %s)", courseName, event.getPreviousGymName())
+                    : "Cours supprimé: " + courseName;
+            default:
+                if (Objects.equals(event.getPreviousGymId(), event.getGymId())) {
+                    return "Cours mis à jour: " + courseName;
+                }
+                if (event.getPreviousGymId() == null) {
+                    return String.format("Cours mis à jour: %s (assigné à la salle %s)", courseName, event.getGymName());
+                }
+                if (event.getGymId() == null) {
+                    return String.format("Cours mis à jour: %s (désassigné de la salle %s)",
+                        courseName, event.getPreviousGymName());
+                }
+                return String.format("Cours mis à jour: %s (salle %s → %s)",
+                    courseName, event.getPreviousGymName(), event.getGymName());
+        }
+    }
+
+    private CourseEvent toChangedEvent(CourseDTO course, CourseEvent.ChangeType changeType,
+                                       String previousGymId, String previousGymName, String description) {
+        CourseEvent event = toCourseEvent(course, CourseEvent.EventType.COURSE_CHANGED, description);
+        event.setChangeType(changeType);
+        event.setPreviousGymId(previousGymId);
+        event.setPreviousGymName(previousGymName);
+        return event;
+    }
+
+    private CourseEvent toAssignmentEvent(CourseDTO course, CourseEvent.EventType eventType,
+                                          String gymId, String gymName, String description) {
+        CourseEvent event = new CourseEvent(course.getId(), course.getTitle(), eventType);
+        event.setGymId(gymId);
+        event.setGymName(gymName);
+        event.setDescription(description);
+        return event;
+    }
+
+    /**
+     * Enregistre la latence d'envoi (jusqu'à l'accusé du broker) et les erreurs par topic
+     * Aussi appelé par OutboxRelay, qui effectue les envois réels quand l'outbox est active
+     */
+    void recordSend(String topic, long startNanos, Throwable exception) {
+        Timer.builder("kafka.producer.send.latency")
+            .description("Latence d'envoi Kafka jusqu'à l'accusé du broker")
+            .tag("topic", topic)
+            .tag("outcome", exception == null ? "success" : "error")
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (exception != null) {
+            Throwable cause = exception.getCause() != null ? exception.getCause() : exception;
+            meterRegistry.counter("kafka.producer.send.errors",
+                "topic", topic, "exception", cause.getClass().getSimpleName()).increment();
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.course.service;
+
+import com.course.config.TaskExecutors;
+import com.course.entity.OutboxEvent;
+import com.course.event.CourseEvent;
+import com.course.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.common.errors.RetriableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relais de la table outbox vers Kafka
+ * Réserve les messages par lots dans l'ordre des IDs (transaction courte), les publie sans verrou tenu,
+ * puis supprime ceux qui sont acquittés. Ordre conservé par clé (topic + message_key): dans un lot, un message
+ * n'est envoyé qu'après l'accusé du précédent de sa clé; un message en échec (nouvel essai différé ou écarté)
+ * bloque les suivants de sa clé seulement, les autres clés continuent d'être relayées
+ * Livraison au moins une fois: un lot interrompu est republié à l'expiration de son bail
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    // Délai avant un nouvel essai après un échec récupérable (doublé à chaque tentative)
+    private static final long INITIAL_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 60000;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private KafkaTemplate<String, String> stringKafkaTemplate;
+
+    @Autowired
+    private KafkaTemplate<String, CourseEvent> courseEventKafkaTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskExecutors taskExecutors;
+
+    @Value("${course.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${course.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${course.outbox.relay.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    // Au-delà, un message en échec récupérable est lui aussi écarté
+    @Value("${course.outbox.relay.max-attempts:20}")
+    private int maxAttempts;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong parkedCount = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private Counter relayed;
+    private Counter parked;
+
+    // Envoi du message suivant d'une clé après l'accusé du précédent, hors thread d'I/O du producer
+    private ExecutorService sendExecutor;
+
+    @PostConstruct
+    void registerMetrics() {
+        sendExecutor = taskExecutors.newExecutor("outbox-send-", 1);
+        Gauge.builder("course.outbox.pending", pending, AtomicLong::get)
+            .description("Messages outbox en attente de publication")
+            .register(meterRegistry);
+        Gauge.builder("course.outbox.lag", lagMillis, value -> value.get() / 1000.0)
+            .description("Âge du plus ancien message outbox non publié")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        relayed = Counter.builder("course.outbox.relayed")
+            .description("Messages outbox publiés sur Kafka")
+            .register(meterRegistry);
+        Gauge.builder("course.outbox.parked", parkedCount, AtomicLong::get)
+            .description("Messages outbox écartés (échec non récupérable ou tentatives épuisées)")
+            .register(meterRegistry);
+        parked = Counter.builder("course.outbox.parked.total")
+            .description("Messages outbox écartés par le relais")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        sendExecutor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${course.outbox.relay.interval-ms:200}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            int claimed;
+            do {
+                List<OutboxEvent> batch = transactionTemplate.execute(status -> claimBatch());
+                claimed = batch == null ? 0 : batch.size();
+                if (claimed > 0) {
+                    publish(batch);
+                }
+            } while (claimed == batchSize);
+        } catch (Exception e) {
+            logger.error("Relais outbox interrompu, nouvel essai au prochain cycle: {}", e.getMessage());
+        } finally {
+            refreshLag();
+        }
+    }
+
+    /**
+     * Remet les messages écartés dans le circuit du relais
+     */
+    public int requeueParked() {
+        int requeued = outboxRepository.requeueParked();
+        logger.info("{} messages outbox écartés remis en attente", requeued);
+        return requeued;
+    }
+
+    /**
+     * Réserve les plus anciens messages disponibles dans une transaction courte (bail lease_until)
+     * Les clés bloquées (message écarté, en cours d'envoi par un autre relais ou en attente d'un nouvel essai)
+     * sont exclues par la requête: un échec ne suspend pas le relais des autres clés
+     */
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxRepository.lockOldest(now, PageRequest.of(0, batchSize));
+        // Bail plus long que l'attente des accusés: un relais arrêté en cours d'envoi libère ses messages
+        LocalDateTime leaseUntil = now.plus(Duration.ofMillis(sendTimeoutMs * 2));
+        batch.forEach(message -> message.setLeaseUntil(leaseUntil));
+        return batch;
+    }
+
+    /**
+     * Publie un lot hors transaction puis, dans une transaction courte, supprime les messages acquittés
+     * et enregistre l'échec des autres, message par message
+     * Les messages d'une même clé sont chaînés: après un échec, les suivants ne sont pas envoyés et restent
+     * en attente derrière le message en échec
+     */
+    private void publish(List<OutboxEvent> batch) {
+        AtomicBoolean expired = new AtomicBoolean();
+        Map<String, CompletableFuture<Void>> lastByKey = new HashMap<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(batch.size());
+        for (OutboxEvent message : batch) {
+            String orderingKey = orderingKey(message);
+            CompletableFuture<Void> previous = orderingKey != null ? lastByKey.get(orderingKey) : null;
+            CompletableFuture<Void> future = previous == null
+                ? send(message)
+                : previous.handle((result, failure) -> failure)
+                    .thenComposeAsync(failure -> failure != null || expired.get()
+                        ? CompletableFuture.<Void>failedFuture(new NotSentException())
+                        : send(message), sendExecutor);
+            if (orderingKey != null) {
+                lastByKey.put(orderingKey, future);
+            }
+            futures.add(future);
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Échecs et accusés manquants traités message par message ci-dessous
+        }
+        // Plus aucun envoi chaîné après le bilan du lot
+        expired.set(true);
+
+        List<Long> acknowledged = new ArrayList<>(batch.size());
+        List<OutboxEvent> notSent = new ArrayList<>();
+        Map<OutboxEvent, Throwable> failures = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent message = batch.get(i);
+            Throwable failure = failureOf(futures.get(i));
+            if (failure == null) {
+                acknowledged.add(message.getId());
+            } else if (failure instanceof NotSentException) {
+                message.setLeaseUntil(null);
+                notSent.add(message);
+            } else {
+                failures.put(message, failure);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!acknowledged.isEmpty()) {
+                outboxRepository.deleteAllByIdInBatch(acknowledged);
+            }
+            // Bail levé: ces messages restent bloqués derrière le message en échec de leur clé
+            outboxRepository.saveAll(notSent);
+            failures.forEach(this::recordFailure);
+        });
+
+        relayed.increment(acknowledged.size());
+        logger.debug("Lot outbox publié: {}/{} messages (IDs {} à {}), {} en attente derrière un échec",
+            acknowledged.size(), batch.size(), batch.get(0).getId(), batch.get(batch.size() - 1).getId(),
+            notSent.size());
+    }
+
+    /**
+     * Clé d'ordre d'un message (topic + clé Kafka); null si le message n'a pas de clé (aucun ordre à conserver)
+     */
+    private String orderingKey(OutboxEvent message) {
+        return message.getMessageKey() != null ? message.getTopic() + '\u0000' + message.getMessageKey() : null;
+    }
+
+    private CompletableFuture<Void> send(OutboxEvent message) {
+        long startNanos = System.nanoTime();
+        CompletableFuture<Void> sent;
+        try {
+            if (message.getPayloadType() == OutboxEvent.PayloadType.COURSE_EVENT) {
+                CourseEvent event = objectMapper.readValue(message.getPayload(), CourseEvent.class);
+                sent = courseEventKafkaTemplate.send(message.getTopic(), message.getMessageKey(), event)
+                    .thenApply(result -> null);
+            } else {
+                sent = stringKafkaTemplate.send(message.getTopic(), message.getMessageKey(), message.getPayload())
+                    .thenApply(result -> null);
+            }
+        } catch (Exception e) {
+            // Payload illisible ou erreur de sérialisation: non récupérable
+            sent = CompletableFuture.failedFuture(e);
+        }
+        // Mêmes métriques que les envois directs (kafka.producer.send.latency / kafka.producer.send.errors)
+        return sent.whenComplete((result, exception) -> kafkaProducerService.recordSend(message.getTopic(), startNanos,
+            exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception));
+    }
+
+    /**
+     * Cause de l'échec d'un envoi (null si acquitté)
+     */
+    private Throwable failureOf(CompletableFuture<Void> future) {
+        if (!future.isDone()) {
+            return new TimeoutException("Accusé Kafka non reçu après " + sendTimeoutMs + " ms");
+        }
+        try {
+            future.getNow(null);
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        } catch (CancellationException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Échec récupérable (broker indisponible, délai): nouvel essai différé (backoff exponentiel)
+     * Échec non récupérable (payload illisible, message trop gros...) ou max-attempts atteint: message écarté
+     */
+    private void recordFailure(OutboxEvent message, Throwable failure) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(abbreviate(failure.getClass().getSimpleName() + ": " + failure.getMessage()));
+
+        if (!isRetriable(failure) || attempts >= maxAttempts) {
+            message.setParkedAt(LocalDateTime.now());
+            message.setLeaseUntil(null);
+            parked.increment();
+            logger.error("Message outbox {} écarté après {} tentative(s): {}", message.getId(), attempts, message.getLastError());
+        } else {
+            long backoffMs = Math.min(MAX_BACKOFF_MS, INITIAL_BACKOFF_MS << Math.min(attempts - 1, 16));
+            message.setLeaseUntil(LocalDateTime.now().plus(Duration.ofMillis(backoffMs)));
+            logger.warn("Échec d'envoi du message outbox {} (tentative {}), nouvel essai dans {} ms: {}",
+                message.getId(), attempts, backoffMs, message.getLastError());
+        }
+        outboxRepository.save(message);
+    }
+
+    private boolean isRetriable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String abbreviate(String error) {
+        return error.length() <= 500 ? error : error.substring(0, 500);
+    }
+
+    private void refreshLag() {
+        try {
+            pending.set(outboxRepository.countByParkedAtIsNull());
+            parkedCount.set(outboxRepository.countByParkedAtIsNotNull());
+            lagMillis.set(outboxRepository.findFirstByParkedAtIsNullOrderByIdAsc()
+                .map(oldest -> Math.max(0, Duration.between(oldest.getCreatedAt(), LocalDateTime.now()).toMillis()))
+                .orElse(0L));
+        } catch (Exception e) {
+            logger.warn("Impossible de calculer le retard de l'outbox: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Message non envoyé: le précédent de sa clé a échoué (ou le lot a expiré avant son tour)
+     */
+    private static class NotSentException extends RuntimeException {
+
+        NotSentException() {
+            super("Message non envoyé: un message précédent de la même clé n'est pas acquitté", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.course.service;
+
+import java.util.List;
+
+/**
+ * Levée quand des cours référencent des salles que le Gym Service ne connaît pas
+ */
+public class UnknownGymsException extends IllegalArgumentException {
+
+    private final List<String> missingGymIds;
+
+    public UnknownGymsException(List<String> missingGymIds) {
+        super("Les salles spécifiées n'existent pas: " + missingGymIds);
+        this.missingGymIds = List.copyOf(missingGymIds);
+    }
+
+    public List<String> getMissingGymIds() {
+        return missingGymIds;
+    }
+}
@@ -1,21 +1,43 @@
 package com.course.service.impl;
 
 import com.course.dto.CourseDTO;
+import com.course.dto.CourseSearchCriteria;
 import com.course.dto.CourseWithGymDTO;
+import com.course.dto.CursorPageDTO;
 import com.course.dto.GymDTO;
+import com.course.dto.GymListSnapshot;
 import com.course.entity.Course;
 import com.course.mapper.CourseMapper;
+import com.course.repository.CourseCursor;
 import com.course.repository.CourseRepository;
+import com.course.repository.CourseSortKey;
+import com.course.repository.CourseSpecifications;
 import com.course.service.CourseService;
 import com.course.service.GymIntegrationService;
 import com.course.service.KafkaProducerService;
+import com.course.service.UnknownGymsException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class CourseServiceImpl implements CourseService {
@@ -34,7 +56,26 @@ public class CourseServiceImpl implements CourseService {
     @Autowired
     private KafkaProducerService kafkaProducerService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${courses.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${courses.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${courses.export.flush-every:500}")
+    private int exportFlushEvery;
+
+    @Value("${courses.batch.max-size:1000}")
+    private int maxBatchSize;
+
     @Override
+    @Transactional
     public CourseDTO create(CourseDTO courseDTO) {
         logger.info("Création d'un nouveau cours: {}", courseDTO.getTitle());
 
@@ -63,32 +104,14 @@ public class CourseServiceImpl implements CourseService {
         CourseDTO result = mapper.toDto(course);
         
         // Publier l'événement Kafka de création
-        kafkaProducerService.publishCourseCreated(
-            result.getId(),
-            result.getTitle(),
-            result.getInstructor(),
-            result.getGymId(),
-            result.getGymName(),
-            result.getMaxParticipants(),
-            result.getPrice(),
-            result.getLevel()
-        );
-        
-        // Si le cours est assigné à une salle, publier l'événement d'assignation
-        if (result.getGymId() != null && result.getGymName() != null) {
-            kafkaProducerService.publishCourseAssignedToGym(
-                result.getId(),
-                result.getTitle(),
-                result.getGymId(),
-                result.getGymName()
-            );
-        }
+        kafkaProducerService.publishCourseCreation(result);
         
         logger.info("Cours créé avec succès, ID: {}, Salle: {}", course.getId(), result.getGymName());
         return result;
     }
 
     @Override
+    @Transactional
     public CourseDTO update(Long id, CourseDTO courseDTO) {
         logger.info("Mise à jour du cours ID: {}", id);
 
@@ -122,60 +145,117 @@ public class CourseServiceImpl implements CourseService {
         }
 
         // Mise à jour des champs
-        existing.setTitle(courseDTO.getTitle());
-        existing.setDescription(courseDTO.getDescription());
-        existing.setInstructor(courseDTO.getInstructor());
-        existing.setDuration(courseDTO.getDuration());
-        existing.setMaxParticipants(courseDTO.getMaxParticipants());
-        existing.setPrice(courseDTO.getPrice());
-        existing.setSchedule(courseDTO.getSchedule());
-        existing.setLevel(courseDTO.getLevel());
-        existing.setGymId(courseDTO.getGymId());
-        existing.setGymName(newGymName);
+        applyUpdate(existing, courseDTO, newGymName);
 
         existing = repository.save(existing);
         CourseDTO result = mapper.toDto(existing);
         
-        // Publier l'événement de mise à jour
-        kafkaProducerService.publishCourseUpdated(
-            result.getId(),
-            result.getTitle(),
-            result.getInstructor(),
-            result.getGymId(),
-            result.getGymName(),
-            result.getMaxParticipants(),
-            result.getPrice(),
-            result.getLevel()
-        );
+        // Publier l'événement de mise à jour (avec l'ancienne assignation de salle)
+        kafkaProducerService.publishCourseModification(result, oldGymId, oldGymName);
         
-        // Gérer les changements d'assignation de salle
-        if (!java.util.Objects.equals(oldGymId, newGymId)) {
-            // Désassignation de l'ancienne salle
-            if (oldGymId != null) {
-                kafkaProducerService.publishCourseUnassignedFromGym(
-                    result.getId(),
-                    result.getTitle(),
-                    oldGymId,
-                    oldGymName
-                );
+        logger.info("Cours mis à jour avec succès: {} - Salle: {}", result.getTitle(), result.getGymName());
+        return result;
+    }
+
+    /**
+     * Création groupée: une seule validation des salles distinctes et des INSERT envoyés par lots JDBC
+     */
+    @Override
+    @Transactional
+    public List<CourseDTO> createAll(List<CourseDTO> courseDTOs) {
+        logger.info("Création groupée de {} cours", courseDTOs.size());
+        checkBatchSize(courseDTOs);
+
+        Map<String, GymDTO> gymsById = resolveGyms(courseDTOs.stream()
+                .map(CourseDTO::getGymId)
+                .collect(Collectors.toList()));
+
+        List<Course> courses = new ArrayList<>();
+        for (CourseDTO courseDTO : courseDTOs) {
+            courseDTO.setId(null); // Toujours une insertion
+            if (hasGym(courseDTO.getGymId())) {
+                courseDTO.setGymName(gymsById.get(courseDTO.getGymId()).getName());
             }
-            
-            // Assignation à la nouvelle salle
-            if (newGymId != null) {
-                kafkaProducerService.publishCourseAssignedToGym(
-                    result.getId(),
-                    result.getTitle(),
-                    newGymId,
-                    newGymName
-                );
+            courses.add(mapper.toEntity(courseDTO));
+        }
+
+        List<CourseDTO> results = repository.saveAll(courses).stream()
+                .map(mapper::toDto)
+                .collect(Collectors.toList());
+
+        kafkaProducerService.publishCoursesCreated(results);
+
+        logger.info("Création groupée terminée: {} cours", results.size());
+        return results;
+    }
+
+    /**
+     * Mise à jour groupée: un seul SELECT des cours, une seule validation des nouvelles salles
+     * et des UPDATE envoyés par lots JDBC
+     */
+    @Override
+    @Transactional
+    public List<CourseDTO> updateAll(List<CourseDTO> courseDTOs) {
+        logger.info("Mise à jour groupée de {} cours", courseDTOs.size());
+        checkBatchSize(courseDTOs);
+
+        if (courseDTOs.stream().anyMatch(dto -> dto.getId() == null)) {
+            throw new IllegalArgumentException("Chaque cours d'une mise à jour groupée doit avoir un ID");
+        }
+
+        Map<Long, Course> existingById = repository.findAllById(courseDTOs.stream()
+                        .map(CourseDTO::getId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+
+        List<Long> missingIds = courseDTOs.stream()
+                .map(CourseDTO::getId)
+                .filter(id -> !existingById.containsKey(id))
+                .distinct()
+                .collect(Collectors.toList());
+        if (!missingIds.isEmpty()) {
+            throw new IllegalArgumentException("Course not found: " + missingIds);
+        }
+
+        // Seules les salles nouvellement assignées doivent être validées
+        Map<String, GymDTO> newGymsById = resolveGyms(courseDTOs.stream()
+                .filter(dto -> hasGym(dto.getGymId())
+                    && !dto.getGymId().equals(existingById.get(dto.getId()).getGymId()))
+                .map(CourseDTO::getGymId)
+                .collect(Collectors.toList()));
+
+        Map<Long, CourseDTO> previousById = new HashMap<>();
+        List<Course> updatedCourses = new ArrayList<>();
+        for (CourseDTO courseDTO : courseDTOs) {
+            Course existing = existingById.get(courseDTO.getId());
+            previousById.putIfAbsent(existing.getId(), mapper.toDto(existing));
+
+            String newGymName = null;
+            if (hasGym(courseDTO.getGymId())) {
+                if (!courseDTO.getGymId().equals(existing.getGymId())) {
+                    newGymName = newGymsById.get(courseDTO.getGymId()).getName();
+                } else {
+                    newGymName = courseDTO.getGymName() != null ? courseDTO.getGymName() : existing.getGymName();
+                }
             }
+
+            applyUpdate(existing, courseDTO, newGymName);
+            updatedCourses.add(existing);
         }
-        
-        logger.info("Cours mis à jour avec succès: {} - Salle: {}", result.getTitle(), result.getGymName());
-        return result;
+
+        List<CourseDTO> results = repository.saveAll(updatedCourses).stream()
+                .map(mapper::toDto)
+                .collect(Collectors.toList());
+
+        kafkaProducerService.publishCoursesUpdated(previousById, results);
+
+        logger.info("Mise à jour groupée terminée: {} cours", results.size());
+        return results;
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
         logger.info("Suppression du cours ID: {}", id);
         
@@ -187,17 +267,7 @@ public class CourseServiceImpl implements CourseService {
         repository.deleteById(id);
         
         // Publier l'événement de suppression
-        kafkaProducerService.publishCourseDeleted(course.getId(), course.getTitle());
-        
-        // Si le cours était assigné à une salle, publier l'événement de désassignation
-        if (course.getGymId() != null) {
-            kafkaProducerService.publishCourseUnassignedFromGym(
-                course.getId(),
-                course.getTitle(),
-                course.getGymId(),
-                course.getGymName()
-            );
-        }
+        kafkaProducerService.publishCourseDeletion(mapper.toDto(course));
         
         logger.info("Cours supprimé avec succès: {} - Salle: {}", course.getTitle(), course.getGymName());
     }
@@ -218,14 +288,58 @@ public class CourseServiceImpl implements CourseService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPageDTO<CourseDTO> getPage(String cursor, Integer size, String sort) {
+        logger.info("Récupération d'une page de cours (taille: {}, tri: {})", size, sort);
+        return fetchPage(null, cursor, size, sort, courses -> courses.stream()
+                .map(mapper::toDto)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Export NDJSON de tous les cours: une ligne JSON par cours, écrite au fil de la lecture
+     * La mémoire reste constante quel que soit le nombre de lignes (entités détachées au fur et à mesure)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAll(OutputStream outputStream) throws IOException {
+        logger.info("Export NDJSON de tous les cours");
+
+        ObjectWriter writer = objectMapper.writerFor(CourseDTO.class);
+        OutputStream out = new BufferedOutputStream(outputStream);
+        // flush-every <= 0 reviendrait à un modulo par zéro: au minimum un flush par ligne
+        int flushEvery = Math.max(1, exportFlushEvery);
+        long count = 0;
+
+        try (Stream<Course> courses = repository.streamAllOrderById()) {
+            for (Course course : (Iterable<Course>) courses::iterator) {
+                out.write(writer.writeValueAsBytes(mapper.toDto(course)));
+                out.write('\n');
+                entityManager.detach(course);
+
+                if (++count % flushEvery == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+
+        logger.info("Export NDJSON terminé: {} cours", count);
+        return count;
+    }
+
     @Override
     public List<CourseWithGymDTO> getAllCoursesWithGymInfo() {
         logger.info("Récupération de tous les cours avec informations des salles");
         
-        List<Course> courses = repository.findAll();
-        return courses.stream()
-                .map(this::enrichCourseWithGymInfo)
-                .collect(Collectors.toList());
+        // Une seule récupération groupée des salles distinctes au lieu d'un appel Feign par cours
+        return enrichCoursesWithGymInfo(repository.findAll());
+    }
+
+    @Override
+    public CursorPageDTO<CourseWithGymDTO> getCoursesWithGymInfoPage(String cursor, Integer size, String sort) {
+        logger.info("Récupération d'une page de cours avec informations des salles (taille: {}, tri: {})", size, sort);
+        return fetchPage(null, cursor, size, sort, this::enrichCoursesWithGymInfo);
     }
 
     @Override
@@ -237,15 +351,128 @@ public class CourseServiceImpl implements CourseService {
     }
 
     @Override
-    public List<GymDTO> getAvailableGyms() {
+    public CursorPageDTO<CourseDTO> getCoursesByGymIdPage(String gymId, String cursor, Integer size, String sort) {
+        logger.info("Récupération d'une page de cours pour la salle: {}", gymId);
+        return fetchPage(CourseSpecifications.hasGymId(gymId), cursor, size, sort, courses -> courses.stream()
+                .map(mapper::toDto)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public List<CourseDTO> getCoursesByGymName(String gymName) {
+        logger.info("Récupération des cours pour la salle nommée: {}", gymName);
+        return repository.findByGymName(gymName).stream()
+                .map(mapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CursorPageDTO<CourseDTO> search(CourseSearchCriteria criteria, String cursor, Integer size, String sort) {
+        logger.info("Recherche de cours: {}", criteria);
+        return fetchPage(CourseSpecifications.matching(criteria), cursor, size, sort, courses -> courses.stream()
+                .map(mapper::toDto)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public GymListSnapshot getAvailableGyms() {
         logger.info("Récupération des salles disponibles");
-        return gymIntegrationService.getAllGymsWithCircuitBreaker();
+        return gymIntegrationService.getAvailableGyms();
+    }
+
+    /**
+     * Copie les champs modifiables du DTO vers l'entité existante
+     */
+    private void applyUpdate(Course existing, CourseDTO courseDTO, String gymName) {
+        existing.setTitle(courseDTO.getTitle());
+        existing.setDescription(courseDTO.getDescription());
+        existing.setInstructor(courseDTO.getInstructor());
+        existing.setDuration(courseDTO.getDuration());
+        existing.setMaxParticipants(courseDTO.getMaxParticipants());
+        existing.setPrice(courseDTO.getPrice());
+        existing.setSchedule(courseDTO.getSchedule());
+        existing.setLevel(courseDTO.getLevel());
+        existing.setGymId(courseDTO.getGymId());
+        existing.setGymName(gymName);
+    }
+
+    /**
+     * Valide en une seule récupération groupée que toutes les salles référencées existent
+     * Salles inconnues: UnknownGymsException (400); Gym Service sans réponse: GymServiceUnavailableException (503)
+     */
+    private Map<String, GymDTO> resolveGyms(List<String> gymIds) {
+        List<String> distinctIds = gymIds.stream()
+                .filter(this::hasGym)
+                .distinct()
+                .collect(Collectors.toList());
+        if (distinctIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, GymDTO> gymsById = gymIntegrationService.resolveGymsForValidation(distinctIds);
+        List<String> missingGyms = distinctIds.stream()
+                .filter(gymId -> !gymsById.containsKey(gymId))
+                .collect(Collectors.toList());
+        if (!missingGyms.isEmpty()) {
+            throw new UnknownGymsException(missingGyms);
+        }
+        return gymsById;
+    }
+
+    private boolean hasGym(String gymId) {
+        return gymId != null && !gymId.isEmpty();
+    }
+
+    private void checkBatchSize(List<CourseDTO> courseDTOs) {
+        if (courseDTOs.size() > maxBatchSize) {
+            throw new IllegalArgumentException(String.format(
+                "Trop de cours dans le lot: %d (maximum %d)", courseDTOs.size(), maxBatchSize));
+        }
+    }
+
+    /**
+     * Lit une page keyset (taille + 1 pour détecter la page suivante) et la convertit
+     */
+    private <T> CursorPageDTO<T> fetchPage(Specification<Course> filter, String cursor, Integer size, String sort,
+                                           Function<List<Course>, List<T>> converter) {
+        CourseSortKey sortKey = CourseSortKey.from(sort);
+        CourseCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = CourseCursor.decode(cursor);
+            if (after.getSortKey() != sortKey) {
+                throw new IllegalArgumentException("Le curseur ne correspond pas au tri demandé: " + sortKey);
+            }
+        }
+
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        List<Course> courses = repository.findPage(filter, sortKey, after, pageSize + 1);
+
+        String nextCursor = null;
+        if (courses.size() > pageSize) {
+            courses = courses.subList(0, pageSize);
+            nextCursor = CourseCursor.after(courses.get(pageSize - 1), sortKey).encode();
+        }
+        return new CursorPageDTO<>(converter.apply(courses), nextCursor);
+    }
+
+    /**
+     * Enrichit une liste de cours avec une seule récupération groupée des salles
+     * Les salles non récupérées avant l'échéance d'enrichissement sont marquées non résolues (gymResolved=false)
+     */
+    private List<CourseWithGymDTO> enrichCoursesWithGymInfo(List<Course> courses) {
+        Map<String, GymDTO> gymsById = gymIntegrationService.getGymsInfoForCourses(
+            courses.stream().map(Course::getGymId).collect(Collectors.toList()));
+
+        return courses.stream()
+                .map(course -> enrichCourseWithGymInfo(course, gymsById))
+                .collect(Collectors.toList());
     }
 
     /**
      * Enrichit un cours avec les informations de la salle
+     * Les salles sont fournies par une récupération groupée préalable (gymsById)
      */
-    private CourseWithGymDTO enrichCourseWithGymInfo(Course course) {
+    private CourseWithGymDTO enrichCourseWithGymInfo(Course course, Map<String, GymDTO> gymsById) {
         CourseWithGymDTO enrichedCourse = new CourseWithGymDTO();
         
         // Copie des informations du cours
@@ -260,33 +487,35 @@ public class CourseServiceImpl implements CourseService {
         enrichedCourse.setLevel(course.getLevel());
         enrichedCourse.setGymId(course.getGymId());
 
+        GymDTO gym = course.getGymId() != null ? gymsById.get(course.getGymId()) : null;
+
         // Utiliser le nom stocké en base ou enrichir si nécessaire
         if (course.getGymName() != null && !course.getGymName().isEmpty()) {
             enrichedCourse.setGymName(course.getGymName());
             
             // Enrichir avec les informations supplémentaires de la salle si disponible
             if (course.getGymId() != null) {
-                try {
-                    GymDTO gym = gymIntegrationService.getGymInfoForCourse(course.getGymId());
+                if (gym != null) {
                     enrichedCourse.setGymLocation(gym.getLocation());
                     enrichedCourse.setGymCapacity(gym.getCapacity());
-                } catch (Exception e) {
-                    logger.warn("Impossible d'enrichir le cours {} avec les infos détaillées de la salle {}: {}", 
-                        course.getId(), course.getGymId(), e.getMessage());
+                } else {
+                    logger.warn("Impossible d'enrichir le cours {} avec les infos détaillées de la salle {}", 
+                        course.getId(), course.getGymId());
+                    enrichedCourse.setGymResolved(false);
                     enrichedCourse.setGymLocation("Information indisponible");
                     enrichedCourse.setGymCapacity(0);
                 }
             }
         } else if (course.getGymId() != null) {
-            // Fallback: récupérer les infos via OpenFeign si le nom n'est pas stocké
-            try {
-                GymDTO gym = gymIntegrationService.getGymInfoForCourse(course.getGymId());
+            // Fallback: utiliser les infos récupérées via OpenFeign si le nom n'est pas stocké
+            if (gym != null) {
                 enrichedCourse.setGymName(gym.getName());
                 enrichedCourse.setGymLocation(gym.getLocation());
                 enrichedCourse.setGymCapacity(gym.getCapacity());
-            } catch (Exception e) {
-                logger.warn("Impossible d'enrichir le cours {} avec les infos de la salle {}: {}", 
-                    course.getId(), course.getGymId(), e.getMessage());
+            } else {
+                logger.warn("Impossible d'enrichir le cours {} avec les infos de la salle {}", 
+                    course.getId(), course.getGymId());
+                enrichedCourse.setGymResolved(false);
                 enrichedCourse.setGymName("Information indisponible");
                 enrichedCourse.setGymLocation("Information indisponible");
                 enrichedCourse.setGymCapacity(0);
@@ -0,0 +1,52 @@
+package com.events.codec;
+
+import org.apache.avro.Schema;
+import org.apache.avro.message.SchemaStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Conversion entre un événement applicatif et son encodage Avro mono-objet
+ * (en-tête C3 01 + empreinte du schéma + données binaires, sans registre de schémas)
+ */
+public interface AvroCodec<T> {
+
+    // Versions publiées des schémas: avro/history/<Record>.v1.avsc, .v2.avsc... (une par modification de src/main/avro)
+    String SCHEMA_HISTORY_PATH = "/avro/history/";
+
+    byte[] encode(T value) throws IOException;
+
+    T decode(byte[] data) throws IOException;
+
+    static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Toutes les versions publiées d'un schéma, indexées par empreinte
+     * Permet au décodeur de lire un message écrit avec un schéma antérieur (résolution vers le schéma courant)
+     */
+    static SchemaStore.Cache releasedSchemas(String recordName) {
+        SchemaStore.Cache store = new SchemaStore.Cache();
+        for (int version = 1; ; version++) {
+            String resource = SCHEMA_HISTORY_PATH + recordName + ".v" + version + ".avsc";
+            try (InputStream in = AvroCodec.class.getResourceAsStream(resource)) {
+                if (in == null) {
+                    if (version == 1) {
+                        throw new IllegalStateException("Aucune version publiée du schéma " + recordName);
+                    }
+                    return store;
+                }
+                // Un parser par version: les versions partagent les mêmes noms de types
+                store.addSchema(new Schema.Parser().parse(in));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Schéma illisible: " + resource, e);
+            }
+        }
+    }
+}
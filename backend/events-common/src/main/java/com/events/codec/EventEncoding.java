@@ -0,0 +1,52 @@
+package com.events.codec;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodages supportés pour les événements Kafka, annoncés dans l'en-tête content-type
+ */
+public enum EventEncoding {
+    JSON("application/json"),
+    AVRO("application/avro");
+
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+
+    // Marqueur de l'encodage Avro mono-objet
+    private static final byte AVRO_MARKER_1 = (byte) 0xC3;
+    private static final byte AVRO_MARKER_2 = (byte) 0x01;
+
+    private final String contentType;
+
+    EventEncoding(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Détermine l'encodage d'un message: en-tête content-type, sinon marqueur Avro en tête du contenu
+     * Les messages sans en-tête publiés avant la migration sont lus comme du JSON
+     */
+    public static EventEncoding detect(Headers headers, byte[] data) {
+        if (headers != null) {
+            Header header = headers.lastHeader(CONTENT_TYPE_HEADER);
+            if (header != null && header.value() != null) {
+                String contentType = new String(header.value(), StandardCharsets.UTF_8);
+                for (EventEncoding encoding : values()) {
+                    if (encoding.contentType.equals(contentType)) {
+                        return encoding;
+                    }
+                }
+            }
+        }
+        if (data != null && data.length >= 2 && data[0] == AVRO_MARKER_1 && data[1] == AVRO_MARKER_2) {
+            return AVRO;
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,36 @@
+package com.events.codec;
+
+import java.time.LocalDateTime;
+
+/**
+ * Champs d'un événement de salle, communs aux copies GymEvent du Gym Service et du Course Service
+ * Permet une seule conversion vers GymEventRecord (GymEventRecordCodec)
+ *
+ * @param <T> type d'événement propre à chaque service (mêmes constantes que GymEventType)
+ */
+public interface GymEventFields<T extends Enum<T>> {
+
+    String getGymId();
+    void setGymId(String gymId);
+
+    String getGymName();
+    void setGymName(String gymName);
+
+    String getGymLocation();
+    void setGymLocation(String gymLocation);
+
+    String getGymEmail();
+    void setGymEmail(String gymEmail);
+
+    Integer getCapacity();
+    void setCapacity(Integer capacity);
+
+    T getEventType();
+    void setEventType(T eventType);
+
+    LocalDateTime getTimestamp();
+    void setTimestamp(LocalDateTime timestamp);
+
+    String getDescription();
+    void setDescription(String description);
+}
@@ -0,0 +1,61 @@
+package com.events.codec;
+
+import com.events.avro.GymEventRecord;
+import com.events.avro.GymEventType;
+import org.apache.avro.message.BinaryMessageDecoder;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Conversion GymEvent <-> GymEventRecord, partagée par le Gym Service (publication)
+ * et le Course Service (consommation, reprises)
+ *
+ * @param <E> copie locale de GymEvent
+ * @param <T> type d'événement de cette copie
+ */
+public class GymEventRecordCodec<E extends GymEventFields<T>, T extends Enum<T>> implements AvroCodec<E> {
+
+    // Décodeur connaissant toutes les versions publiées du schéma (messages écrits avant une évolution)
+    private static final BinaryMessageDecoder<GymEventRecord> DECODER =
+        GymEventRecord.createDecoder(AvroCodec.releasedSchemas("GymEventRecord"));
+
+    private final Supplier<E> eventFactory;
+    private final Class<T> eventTypeClass;
+
+    public GymEventRecordCodec(Supplier<E> eventFactory, Class<T> eventTypeClass) {
+        this.eventFactory = eventFactory;
+        this.eventTypeClass = eventTypeClass;
+    }
+
+    @Override
+    public byte[] encode(E event) throws IOException {
+        GymEventRecord record = GymEventRecord.newBuilder()
+            .setGymId(event.getGymId())
+            .setGymName(event.getGymName())
+            .setGymLocation(event.getGymLocation())
+            .setGymEmail(event.getGymEmail())
+            .setCapacity(event.getCapacity())
+            .setEventType(event.getEventType() != null ? GymEventType.valueOf(event.getEventType().name()) : null)
+            .setTimestamp(event.getTimestamp())
+            .setDescription(event.getDescription())
+            .build();
+        return AvroCodec.toArray(record.toByteBuffer());
+    }
+
+    @Override
+    public E decode(byte[] data) throws IOException {
+        GymEventRecord record = DECODER.decode(data);
+        E event = eventFactory.get();
+        event.setGymId(record.getGymId());
+        event.setGymName(record.getGymName());
+        event.setGymLocation(record.getGymLocation());
+        event.setGymEmail(record.getGymEmail());
+        event.setCapacity(record.getCapacity());
+        event.setEventType(record.getEventType() != null
+            ? Enum.valueOf(eventTypeClass, record.getEventType().name()) : null);
+        event.setTimestamp(record.getTimestamp());
+        event.setDescription(record.getDescription());
+        return event;
+    }
+}
@@ -0,0 +1,48 @@
+package com.events.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+/**
+ * Désérialise un événement Avro ou JSON selon l'encodage détecté (en-tête content-type ou marqueur Avro)
+ * Permet de faire cohabiter les deux formats pendant la migration des producteurs
+ */
+public class NegotiatingDeserializer<T> implements Deserializer<T> {
+
+    private final AvroCodec<T> avroCodec;
+    private final Deserializer<T> jsonDeserializer;
+
+    public NegotiatingDeserializer(AvroCodec<T> avroCodec, Deserializer<T> jsonDeserializer) {
+        this.avroCodec = avroCodec;
+        this.jsonDeserializer = jsonDeserializer;
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+
+        if (EventEncoding.detect(headers, data) == EventEncoding.AVRO) {
+            try {
+                return avroCodec.decode(data);
+            } catch (IOException e) {
+                throw new SerializationException("Décodage Avro impossible pour le topic " + topic, e);
+            }
+        }
+        return jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,56 @@
+package com.events.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sérialise un événement en Avro ou en JSON selon l'encodage configuré
+ * et l'annonce dans l'en-tête content-type pour les consommateurs
+ */
+public class NegotiatingSerializer<T> implements Serializer<T> {
+
+    private final EventEncoding encoding;
+    private final AvroCodec<T> avroCodec;
+    private final Serializer<T> jsonSerializer;
+
+    public NegotiatingSerializer(EventEncoding encoding, AvroCodec<T> avroCodec, Serializer<T> jsonSerializer) {
+        this.encoding = encoding;
+        this.avroCodec = avroCodec;
+        this.jsonSerializer = jsonSerializer;
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, T data) {
+        if (data == null) {
+            return null;
+        }
+
+        if (headers != null) {
+            headers.remove(EventEncoding.CONTENT_TYPE_HEADER);
+            headers.add(EventEncoding.CONTENT_TYPE_HEADER, encoding.getContentType().getBytes(StandardCharsets.UTF_8));
+        }
+
+        if (encoding == EventEncoding.AVRO) {
+            try {
+                return avroCodec.encode(data);
+            } catch (IOException e) {
+                throw new SerializationException("Encodage Avro impossible pour le topic " + topic, e);
+            }
+        }
+        return jsonSerializer.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
@@ -1,22 +1,30 @@
 package com.gym.config;
 
+import com.events.codec.EventEncoding;
+import com.events.codec.GymEventRecordCodec;
+import com.events.codec.NegotiatingSerializer;
 import com.gym.event.GymEvent;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import reactor.kafka.sender.SenderOptions;
 
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Configuration Kafka pour le Gym Service
- * Support des messages String et Objet (JSON)
+ * Support des messages String et Objet (JSON ou Avro selon kafka.events.encoding)
  */
 @Configuration
 public class KafkaConfig {
@@ -24,6 +32,13 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    // JSON pendant la migration, AVRO une fois tous les consommateurs capables de négocier
+    @Value("${kafka.events.encoding:JSON}")
+    private EventEncoding eventEncoding;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     /**
      * Configuration commune pour les producers
      */
@@ -46,7 +61,7 @@ public class KafkaConfig {
         Map<String, Object> props = getCommonProducerProps();
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        return new DefaultKafkaProducerFactory<>(props);
+        return withMetrics(new DefaultKafkaProducerFactory<>(props));
     }
 
     /**
@@ -58,18 +73,21 @@ public class KafkaConfig {
     }
 
     /**
-     * Producer Factory pour messages OBJET (JSON)
+     * Producer Factory pour messages OBJET (JSON ou Avro)
      */
     @Bean
     public ProducerFactory<String, GymEvent> gymEventProducerFactory() {
         Map<String, Object> props = getCommonProducerProps();
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        
-        // Configuration JSON Serializer
-        props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
-        
-        return new DefaultKafkaProducerFactory<>(props);
+        return withMetrics(new DefaultKafkaProducerFactory<>(props, new StringSerializer(), gymEventSerializer()));
+    }
+
+    /**
+     * Sérialiseur GymEvent: encodage choisi par kafka.events.encoding, annoncé dans l'en-tête content-type
+     */
+    @Bean
+    public NegotiatingSerializer<GymEvent> gymEventSerializer() {
+        JsonSerializer<GymEvent> jsonSerializer = new JsonSerializer<GymEvent>().noTypeInfo();
+        return new NegotiatingSerializer<>(eventEncoding, gymEventAvroCodec(), jsonSerializer);
     }
 
     /**
@@ -79,4 +97,41 @@ public class KafkaConfig {
     public KafkaTemplate<String, GymEvent> gymEventKafkaTemplate() {
         return new KafkaTemplate<>(gymEventProducerFactory());
     }
-}
\ No newline at end of file
+
+    /**
+     * Producteur non bloquant pour messages STRING (API réactive /gyms)
+     */
+    @Bean
+    public ReactiveKafkaProducerTemplate<String, String> reactiveStringKafkaTemplate() {
+        SenderOptions<String, String> options = SenderOptions.<String, String>create(getCommonProducerProps())
+            .withKeySerializer(new StringSerializer())
+            .withValueSerializer(new StringSerializer());
+        return new ReactiveKafkaProducerTemplate<>(options);
+    }
+
+    /**
+     * Producteur non bloquant pour messages OBJET (GymEvent, même encodage que gymEventKafkaTemplate)
+     */
+    @Bean
+    public ReactiveKafkaProducerTemplate<String, GymEvent> reactiveGymEventKafkaTemplate() {
+        SenderOptions<String, GymEvent> options = SenderOptions.<String, GymEvent>create(getCommonProducerProps())
+            .withKeySerializer(new StringSerializer())
+            .withValueSerializer(gymEventSerializer());
+        return new ReactiveKafkaProducerTemplate<>(options);
+    }
+
+    /**
+     * Expose les métriques du client Kafka (kafka.producer.*) dans Micrometer
+     */
+    private <K, V> DefaultKafkaProducerFactory<K, V> withMetrics(DefaultKafkaProducerFactory<K, V> factory) {
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
+    }
+
+    /**
+     * Conversion Avro de GymEvent (mapping partagé events-common)
+     */
+    private GymEventRecordCodec<GymEvent, GymEvent.EventType> gymEventAvroCodec() {
+        return new GymEventRecordCodec<>(GymEvent::new, GymEvent.EventType.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.gym.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.controller.ReactiveGymHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Serveur Reactor Netty de la variante réactive de l'API /gyms (gym-service.reactive.port)
+ * Démarré à côté de Tomcat: l'API bloquante reste servie sur server.port, les mêmes chemins /gyms
+ * sont servis ici par ReactiveGymHandler sur quelques threads d'event loop
+ */
+@Component
+@ConditionalOnProperty(name = "gym-service.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveGymServer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveGymServer.class);
+
+    @Value("${gym-service.reactive.port:8091}")
+    private int port;
+
+    @Autowired
+    private ReactiveGymHandler handler;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile DisposableServer server;
+
+    @Override
+    public void start() {
+        RouterFunction<ServerResponse> routes = RouterFunctions.route()
+            .GET("/gyms/slow", handler::getGymsSlowly)
+            .GET("/gyms/error", handler::getGymsWithError)
+            .GET("/gyms/{id}", handler::getGymById)
+            .GET("/gyms", handler::getAllGyms)
+            .POST("/gyms/batch", handler::getGymsByIds)
+            .POST("/gyms", handler::createGym)
+            .PUT("/gyms/{id}", handler::updateGym)
+            .DELETE("/gyms/{id}", handler::deleteGym)
+            .filter(handler::checkDeadline)
+            .build();
+
+        // Même ObjectMapper que Spring MVC (spring.jackson.*): réponses identiques sur les deux ports
+        HandlerStrategies strategies = HandlerStrategies.builder()
+            .codecs(configurer -> {
+                configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+            })
+            .webFilter(new CorsWebFilter(corsConfigurationSource()))
+            .exceptionHandler(this::handleTimeout)
+            .build();
+
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes, strategies);
+        server = HttpServer.create()
+            .port(port)
+            // HTTP/1.1 et HTTP/2 en clair (client Feign http2 du Course Service)
+            .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+            .handle(new ReactorHttpHandlerAdapter(httpHandler))
+            .bindNow();
+        logger.info("API réactive /gyms démarrée sur le port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Échéance de l'appelant atteinte avant l'envoi de la réponse: 504 comme l'API bloquante
+     */
+    private Mono<Void> handleTimeout(ServerWebExchange exchange, Throwable ex) {
+        if (!(ex instanceof TimeoutException) || exchange.getResponse().isCommitted()) {
+            return Mono.error(ex);
+        }
+        logger.warn("Requête {} {} abandonnée: échéance dépassée",
+            exchange.getRequest().getMethod(), exchange.getRequest().getPath());
+        exchange.getResponse().setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+        return exchange.getResponse().setComplete();
+    }
+
+    private UrlBasedCorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.addAllowedOrigin("*");
+        configuration.addAllowedMethod("*");
+        configuration.addAllowedHeader("*");
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/gyms/**", configuration);
+        return source;
+    }
+}
@@ -0,0 +1,41 @@
+package com.gym.config;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Échéance fixée par l'appelant (en-tête X-Request-Deadline-Ms: temps restant en millisecondes)
+ * Portée par le thread qui traite la requête
+ */
+public final class RequestDeadline {
+
+    public static final String HEADER = "X-Request-Deadline-Ms";
+
+    // Échéance en System.nanoTime() (horloge monotone)
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    public static void startIn(long timeoutMs) {
+        DEADLINE.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+    }
+
+    /**
+     * Temps restant en millisecondes (Long.MAX_VALUE sans échéance, négatif ou nul si dépassée)
+     */
+    public static long remainingMillis() {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+
+    public static boolean isExpired() {
+        return remainingMillis() <= 0;
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+}
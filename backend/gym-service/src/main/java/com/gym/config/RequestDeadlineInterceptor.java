@@ -0,0 +1,45 @@
+package com.gym.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Lit l'échéance transmise par l'appelant et abandonne les requêtes déjà expirées:
+ * l'appelant a renoncé, inutile de solliciter MongoDB
+ */
+@Component
+public class RequestDeadlineInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestDeadlineInterceptor.class);
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        String header = request.getHeader(RequestDeadline.HEADER);
+        if (header == null) {
+            return true;
+        }
+        long remainingMs;
+        try {
+            remainingMs = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("En-tête {} invalide ignoré: {}", RequestDeadline.HEADER, header);
+            return true;
+        }
+        if (remainingMs <= 0) {
+            logger.warn("Requête {} {} abandonnée: échéance dépassée", request.getMethod(), request.getRequestURI());
+            response.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT, "Échéance dépassée");
+            return false;
+        }
+        RequestDeadline.startIn(remainingMs);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestDeadline.clear();
+    }
+}
@@ -1,8 +1,10 @@
 package com.gym.controller;
 
+import com.gym.config.RequestDeadline;
 import com.gym.dto.GymDTO;
 import com.gym.service.GymService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,6 +16,8 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class GymController {
 
+    public static final int MAX_BATCH_SIZE = 1000;
+
     @Autowired
     private GymService gymService;
 
@@ -29,6 +33,20 @@ public class GymController {
                   .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Récupération groupée de salles par identifiants (utilisé par course-service)
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<GymDTO>> getGymsByIds(@RequestBody List<String> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (RequestDeadline.isExpired()) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
+        return ResponseEntity.ok(gymService.getGymsByIds(ids));
+    }
+
     @PostMapping
     public ResponseEntity<GymDTO> createGym(@RequestBody GymDTO gymDTO) {
         return ResponseEntity.ok(gymService.createGym(gymDTO));
@@ -48,10 +66,14 @@ public class GymController {
 
     /**
      * Endpoint pour tester la latence (simulation de lenteur)
+     * La simulation s'interrompt à l'échéance de l'appelant: le travail restant est abandonné
      */
     @GetMapping("/slow")
     public ResponseEntity<List<GymDTO>> getGymsSlowly() throws InterruptedException {
-        Thread.sleep(15000); // Simulation de 15 secondes de latence
+        Thread.sleep(Math.min(15000, Math.max(0, RequestDeadline.remainingMillis()))); // Simulation de 15 secondes de latence
+        if (RequestDeadline.isExpired()) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
         return ResponseEntity.ok(gymService.getAllGyms());
     }
 
@@ -50,10 +50,11 @@ public class KafkaTestController {
     public ResponseEntity<String> sendGymCreatedEvent(
             @RequestParam String gymId,
             @RequestParam String gymName,
+            @RequestParam(required = false) String gymLocation,
             @RequestParam(required = false) String gymEmail,
             @RequestParam(required = false) Integer capacity) {
         
-        kafkaProducerService.publishGymCreated(gymId, gymName, gymEmail, capacity);
+        kafkaProducerService.publishGymCreated(gymId, gymName, gymLocation, gymEmail, capacity);
         return ResponseEntity.ok("Événement GYM_CREATED envoyé");
     }
 
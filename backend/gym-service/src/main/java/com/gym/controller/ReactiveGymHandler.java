@@ -0,0 +1,149 @@
+package com.gym.controller;
+
+import com.gym.config.RequestDeadline;
+import com.gym.dto.GymDTO;
+import com.gym.service.ReactiveGymService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Variante réactive de GymController (mêmes chemins /gyms, servie par ReactiveGymServer)
+ * Aucun thread n'est bloqué pendant les accès MongoDB, les envois Kafka ou la latence simulée de /gyms/slow
+ * Accept: application/x-ndjson diffuse les salles une par une au rythme de lecture du client (backpressure)
+ */
+@Component
+public class ReactiveGymHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveGymHandler.class);
+
+    // Échéance de la requête en System.nanoTime(), posée par checkDeadline
+    private static final String DEADLINE_ATTRIBUTE = ReactiveGymHandler.class.getName() + ".deadline";
+
+    private static final ParameterizedTypeReference<List<String>> IDS_TYPE = new ParameterizedTypeReference<>() {
+    };
+
+    @Autowired
+    private ReactiveGymService reactiveGymService;
+
+    public Mono<ServerResponse> getAllGyms(ServerRequest request) {
+        return list(request, reactiveGymService.getAllGyms());
+    }
+
+    public Mono<ServerResponse> getGymById(ServerRequest request) {
+        return withDeadline(request, reactiveGymService.getGymById(request.pathVariable("id")))
+            .flatMap(gym -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(gym))
+            .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    /**
+     * Récupération groupée de salles par identifiants (utilisé par course-service)
+     */
+    public Mono<ServerResponse> getGymsByIds(ServerRequest request) {
+        return request.bodyToMono(IDS_TYPE).flatMap(ids -> ids.size() > GymController.MAX_BATCH_SIZE
+            ? ServerResponse.badRequest().build()
+            : list(request, reactiveGymService.getGymsByIds(ids)));
+    }
+
+    public Mono<ServerResponse> createGym(ServerRequest request) {
+        return request.bodyToMono(GymDTO.class)
+            .flatMap(reactiveGymService::createGym)
+            .flatMap(gym -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(gym));
+    }
+
+    public Mono<ServerResponse> updateGym(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return request.bodyToMono(GymDTO.class)
+            .flatMap(dto -> reactiveGymService.updateGym(id, dto))
+            .flatMap(gym -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(gym))
+            .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> deleteGym(ServerRequest request) {
+        return reactiveGymService.deleteGym(request.pathVariable("id"))
+            .then(ServerResponse.noContent().build());
+    }
+
+    /**
+     * Latence simulée sans thread bloqué (timer), interrompue à l'échéance de l'appelant (504)
+     */
+    public Mono<ServerResponse> getGymsSlowly(ServerRequest request) {
+        return list(request, Mono.delay(Duration.ofSeconds(15)).thenMany(reactiveGymService.getAllGyms()));
+    }
+
+    /**
+     * Endpoint pour simuler une erreur
+     */
+    public Mono<ServerResponse> getGymsWithError(ServerRequest request) {
+        return Mono.error(new RuntimeException("Erreur simulée pour tester le Circuit Breaker"));
+    }
+
+    /**
+     * Filtre des routes /gyms: lit l'échéance transmise par l'appelant (en-tête X-Request-Deadline-Ms)
+     * et abandonne les requêtes déjà expirées, comme RequestDeadlineInterceptor côté Spring MVC
+     */
+    public Mono<ServerResponse> checkDeadline(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        Optional<String> header = Optional.ofNullable(request.headers().firstHeader(RequestDeadline.HEADER));
+        if (header.isEmpty()) {
+            return next.handle(request);
+        }
+        long remainingMs;
+        try {
+            remainingMs = Long.parseLong(header.get().trim());
+        } catch (NumberFormatException e) {
+            logger.warn("En-tête {} invalide ignoré: {}", RequestDeadline.HEADER, header.get());
+            return next.handle(request);
+        }
+        if (remainingMs <= 0) {
+            logger.warn("Requête {} {} abandonnée: échéance dépassée", request.method(), request.path());
+            return ServerResponse.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
+        request.attributes().put(DEADLINE_ATTRIBUTE, System.nanoTime() + Duration.ofMillis(remainingMs).toNanos());
+        return next.handle(request);
+    }
+
+    /**
+     * Liste de salles: tableau JSON par défaut, une salle par ligne en application/x-ndjson
+     */
+    private Mono<ServerResponse> list(ServerRequest request, Flux<GymDTO> gyms) {
+        MediaType contentType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+            ? MediaType.APPLICATION_NDJSON
+            : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(contentType).body(withDeadline(request, gyms), GymDTO.class);
+    }
+
+    private <T> Flux<T> withDeadline(ServerRequest request, Flux<T> body) {
+        Optional<Object> deadline = request.attribute(DEADLINE_ATTRIBUTE);
+        if (deadline.isEmpty()) {
+            return body;
+        }
+        long deadlineNanos = (Long) deadline.get();
+        // Délai recalculé à chaque salle: l'échéance porte sur toute la réponse, pas sur l'intervalle entre deux salles
+        return body.timeout(remaining(deadlineNanos), gym -> remaining(deadlineNanos));
+    }
+
+    private <T> Mono<T> withDeadline(ServerRequest request, Mono<T> body) {
+        Optional<Object> deadline = request.attribute(DEADLINE_ATTRIBUTE);
+        if (deadline.isEmpty()) {
+            return body;
+        }
+        return body.timeout(remaining((Long) deadline.get()));
+    }
+
+    private Mono<Long> remaining(long deadlineNanos) {
+        return Mono.defer(() -> Mono.delay(Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()))));
+    }
+}
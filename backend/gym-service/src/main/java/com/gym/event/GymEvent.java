@@ -1,8 +1,10 @@
 package com.gym.event;
 
+import com.events.codec.GymEventFields;
+
 import java.time.LocalDateTime;
 
-public class GymEvent {
+public class GymEvent implements GymEventFields<GymEvent.EventType> {
     
     public enum EventType {
         GYM_CREATED,
@@ -13,6 +15,7 @@ public class GymEvent {
     
     private String gymId;
     private String gymName;
+    private String gymLocation;
     private String gymEmail;
     private Integer capacity;
     private EventType eventType;
@@ -41,6 +44,40 @@ public class GymEvent {
         this.description = description;
     }
 
+    /**
+     * Événements publiés par le Gym Service (producteurs bloquant et réactif)
+     */
+    public static GymEvent created(String gymId, String gymName, String gymLocation, String gymEmail, Integer capacity) {
+        GymEvent event = new GymEvent(gymId, gymName, EventType.GYM_CREATED);
+        event.setGymLocation(gymLocation);
+        event.setGymEmail(gymEmail);
+        event.setCapacity(capacity);
+        event.setDescription("Nouvelle salle de sport créée");
+        return event;
+    }
+
+    public static GymEvent updated(String gymId, String gymName, String gymLocation, String gymEmail, Integer capacity) {
+        GymEvent event = new GymEvent(gymId, gymName, EventType.GYM_UPDATED);
+        event.setGymLocation(gymLocation);
+        event.setGymEmail(gymEmail);
+        event.setCapacity(capacity);
+        event.setDescription("Informations de la salle mises à jour");
+        return event;
+    }
+
+    public static GymEvent deleted(String gymId, String gymName) {
+        GymEvent event = new GymEvent(gymId, gymName, EventType.GYM_DELETED);
+        event.setDescription("Salle de sport supprimée");
+        return event;
+    }
+
+    public static GymEvent capacityChanged(String gymId, String gymName, Integer oldCapacity, Integer newCapacity) {
+        GymEvent event = new GymEvent(gymId, gymName, EventType.GYM_CAPACITY_CHANGED);
+        event.setCapacity(newCapacity);
+        event.setDescription(String.format("Capacité changée de %d à %d", oldCapacity, newCapacity));
+        return event;
+    }
+
     // Getters et Setters
     public String getGymId() { return gymId; }
     public void setGymId(String gymId) { this.gymId = gymId; }
@@ -48,6 +85,9 @@ public class GymEvent {
     public String getGymName() { return gymName; }
     public void setGymName(String gymName) { this.gymName = gymName; }
 
+    public String getGymLocation() { return gymLocation; }
+    public void setGymLocation(String gymLocation) { this.gymLocation = gymLocation; }
+
     public String getGymEmail() { return gymEmail; }
     public void setGymEmail(String gymEmail) { this.gymEmail = gymEmail; }
 
@@ -0,0 +1,10 @@
+package com.gym.repository;
+
+import com.gym.entity.Gym;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+/**
+ * Accès MongoDB non bloquant (driver reactive streams) pour la variante réactive de l'API /gyms
+ */
+public interface ReactiveGymRepository extends ReactiveMongoRepository<Gym, String> {
+}
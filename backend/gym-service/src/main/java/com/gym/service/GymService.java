@@ -9,6 +9,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,6 +39,17 @@ public class GymService {
         return gymRepository.findById(id).map(gymMapper::toDTO);
     }
 
+    /**
+     * Récupère plusieurs salles en une seule requête MongoDB ($in sur _id)
+     * Les identifiants inconnus sont simplement absents du résultat
+     */
+    public List<GymDTO> getGymsByIds(Collection<String> ids) {
+        logger.info("Récupération groupée de {} salles", ids.size());
+        List<Gym> gyms = new ArrayList<>();
+        gymRepository.findAllById(new LinkedHashSet<>(ids)).forEach(gyms::add);
+        return gymMapper.toDTOs(gyms);
+    }
+
     public GymDTO createGym(GymDTO dto) {
         logger.info("Création d'une nouvelle salle: {}", dto.getName());
         
@@ -47,6 +61,7 @@ public class GymService {
         kafkaProducerService.publishGymCreated(
             result.getId(), 
             result.getName(), 
+            result.getLocation(), 
             result.getEmail(), 
             result.getCapacity()
         );
@@ -76,6 +91,7 @@ public class GymService {
             kafkaProducerService.publishGymUpdated(
                 result.getId(), 
                 result.getName(), 
+                result.getLocation(), 
                 result.getEmail(), 
                 result.getCapacity()
             );
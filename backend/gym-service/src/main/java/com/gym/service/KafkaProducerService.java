@@ -1,6 +1,8 @@
 package com.gym.service;
 
 import com.gym.event.GymEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,7 @@ import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service pour publier des messages Kafka
@@ -23,6 +26,9 @@ public class KafkaProducerService {
     public static final String GYM_EVENTS_TOPIC = "gym-events";
     public static final String GYM_NOTIFICATIONS_TOPIC = "gym-notifications";
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Autowired
     private KafkaTemplate<String, String> stringKafkaTemplate;
 
@@ -35,10 +41,12 @@ public class KafkaProducerService {
     public void sendStringMessage(String topic, String key, String message) {
         logger.info("Envoi message STRING vers topic '{}' avec clé '{}': {}", topic, key, message);
         
+        long startNanos = System.nanoTime();
         CompletableFuture<SendResult<String, String>> future = 
             stringKafkaTemplate.send(topic, key, message);
         
         future.whenComplete((result, exception) -> {
+            recordSend(topic, startNanos, exception);
             if (exception == null) {
                 logger.info("Message STRING envoyé avec succès: offset={}, partition={}", 
                     result.getRecordMetadata().offset(), 
@@ -57,10 +65,12 @@ public class KafkaProducerService {
         
         String key = event.getGymId(); // Utiliser l'ID de la salle comme clé pour le partitioning
         
+        long startNanos = System.nanoTime();
         CompletableFuture<SendResult<String, GymEvent>> future = 
             gymEventKafkaTemplate.send(GYM_EVENTS_TOPIC, key, event);
         
         future.whenComplete((result, exception) -> {
+            recordSend(GYM_EVENTS_TOPIC, startNanos, exception);
             if (exception == null) {
                 logger.info("Événement GYM envoyé avec succès: offset={}, partition={}", 
                     result.getRecordMetadata().offset(), 
@@ -82,13 +92,8 @@ public class KafkaProducerService {
     /**
      * Publier un événement de création de salle
      */
-    public void publishGymCreated(String gymId, String gymName, String gymEmail, Integer capacity) {
-        GymEvent event = new GymEvent(gymId, gymName, GymEvent.EventType.GYM_CREATED);
-        event.setGymEmail(gymEmail);
-        event.setCapacity(capacity);
-        event.setDescription("Nouvelle salle de sport créée");
-        
-        sendGymEvent(event);
+    public void publishGymCreated(String gymId, String gymName, String gymLocation, String gymEmail, Integer capacity) {
+        sendGymEvent(GymEvent.created(gymId, gymName, gymLocation, gymEmail, capacity));
         
         // Notification simple en parallèle
         sendNotification(gymId, "Salle créée: " + gymName);
@@ -97,13 +102,8 @@ public class KafkaProducerService {
     /**
      * Publier un événement de mise à jour de salle
      */
-    public void publishGymUpdated(String gymId, String gymName, String gymEmail, Integer capacity) {
-        GymEvent event = new GymEvent(gymId, gymName, GymEvent.EventType.GYM_UPDATED);
-        event.setGymEmail(gymEmail);
-        event.setCapacity(capacity);
-        event.setDescription("Informations de la salle mises à jour");
-        
-        sendGymEvent(event);
+    public void publishGymUpdated(String gymId, String gymName, String gymLocation, String gymEmail, Integer capacity) {
+        sendGymEvent(GymEvent.updated(gymId, gymName, gymLocation, gymEmail, capacity));
         sendNotification(gymId, "Salle mise à jour: " + gymName);
     }
 
@@ -111,10 +111,7 @@ public class KafkaProducerService {
      * Publier un événement de suppression de salle
      */
     public void publishGymDeleted(String gymId, String gymName) {
-        GymEvent event = new GymEvent(gymId, gymName, GymEvent.EventType.GYM_DELETED);
-        event.setDescription("Salle de sport supprimée");
-        
-        sendGymEvent(event);
+        sendGymEvent(GymEvent.deleted(gymId, gymName));
         sendNotification(gymId, "Salle supprimée: " + gymName);
     }
 
@@ -122,11 +119,26 @@ public class KafkaProducerService {
      * Publier un événement de changement de capacité
      */
     public void publishGymCapacityChanged(String gymId, String gymName, Integer oldCapacity, Integer newCapacity) {
-        GymEvent event = new GymEvent(gymId, gymName, GymEvent.EventType.GYM_CAPACITY_CHANGED);
-        event.setCapacity(newCapacity);
-        event.setDescription(String.format("Capacité changée de %d à %d", oldCapacity, newCapacity));
-        
-        sendGymEvent(event);
+        sendGymEvent(GymEvent.capacityChanged(gymId, gymName, oldCapacity, newCapacity));
         sendNotification(gymId, String.format("Capacité de %s changée: %d → %d", gymName, oldCapacity, newCapacity));
     }
-}
\ No newline at end of file
+
+    /**
+     * Enregistre la latence d'envoi (jusqu'à l'accusé du broker) et les erreurs par topic
+     * Partagé avec ReactiveKafkaProducerService: mêmes métriques pour les deux producteurs
+     */
+    void recordSend(String topic, long startNanos, Throwable exception) {
+        Timer.builder("kafka.producer.send.latency")
+            .description("Latence d'envoi Kafka jusqu'à l'accusé du broker")
+            .tag("topic", topic)
+            .tag("outcome", exception == null ? "success" : "error")
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (exception != null) {
+            Throwable cause = exception.getCause() != null ? exception.getCause() : exception;
+            meterRegistry.counter("kafka.producer.send.errors",
+                "topic", topic, "exception", cause.getClass().getSimpleName()).increment();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.gym.service;
+
+import com.gym.dto.GymDTO;
+import com.gym.event.GymEvent;
+import com.gym.mapper.GymMapper;
+import com.gym.repository.ReactiveGymRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
+/**
+ * Variante non bloquante de GymService (MongoDB réactif, Kafka via reactor-kafka)
+ * Les listes sont des Flux lus depuis le curseur MongoDB au rythme de la demande du client
+ */
+@Service
+public class ReactiveGymService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveGymService.class);
+
+    @Autowired
+    private ReactiveGymRepository reactiveGymRepository;
+
+    @Autowired
+    private GymMapper gymMapper;
+
+    @Autowired
+    private ReactiveKafkaProducerService reactiveKafkaProducerService;
+
+    public Flux<GymDTO> getAllGyms() {
+        logger.info("Récupération réactive de toutes les salles");
+        return reactiveGymRepository.findAll().map(gymMapper::toDTO);
+    }
+
+    public Mono<GymDTO> getGymById(String id) {
+        logger.info("Récupération réactive de la salle: {}", id);
+        return reactiveGymRepository.findById(id).map(gymMapper::toDTO);
+    }
+
+    /**
+     * Récupère plusieurs salles en une seule requête MongoDB ($in sur _id)
+     * Les identifiants inconnus sont simplement absents du résultat
+     */
+    public Flux<GymDTO> getGymsByIds(Collection<String> ids) {
+        logger.info("Récupération réactive groupée de {} salles", ids.size());
+        return reactiveGymRepository.findAllById(new LinkedHashSet<>(ids)).map(gymMapper::toDTO);
+    }
+
+    public Mono<GymDTO> createGym(GymDTO dto) {
+        logger.info("Création réactive d'une nouvelle salle: {}", dto.getName());
+        return reactiveGymRepository.save(gymMapper.toEntity(dto))
+            .map(gymMapper::toDTO)
+            .flatMap(result -> reactiveKafkaProducerService.publish(
+                    GymEvent.created(result.getId(), result.getName(), result.getLocation(),
+                        result.getEmail(), result.getCapacity()),
+                    "Salle créée: " + result.getName())
+                .thenReturn(result))
+            .doOnNext(result -> logger.info("Salle créée avec succès: {}", result.getId()));
+    }
+
+    /**
+     * Mise à jour d'une salle (Mono vide si la salle n'existe pas)
+     */
+    public Mono<GymDTO> updateGym(String id, GymDTO dto) {
+        logger.info("Mise à jour réactive de la salle: {}", id);
+        return reactiveGymRepository.findById(id).flatMap(existing -> {
+            Integer oldCapacity = existing.getCapacity();
+
+            existing.setName(dto.getName());
+            existing.setLocation(dto.getLocation());
+            existing.setPhone(dto.getPhone());
+            existing.setEmail(dto.getEmail());
+            existing.setCapacity(dto.getCapacity());
+
+            return reactiveGymRepository.save(existing).map(gymMapper::toDTO).flatMap(result -> {
+                Mono<Void> events = reactiveKafkaProducerService.publish(
+                    GymEvent.updated(result.getId(), result.getName(), result.getLocation(),
+                        result.getEmail(), result.getCapacity()),
+                    "Salle mise à jour: " + result.getName());
+                if (!oldCapacity.equals(result.getCapacity())) {
+                    events = events.and(reactiveKafkaProducerService.publish(
+                        GymEvent.capacityChanged(result.getId(), result.getName(), oldCapacity, result.getCapacity()),
+                        String.format("Capacité de %s changée: %d → %d",
+                            result.getName(), oldCapacity, result.getCapacity())));
+                }
+                return events.thenReturn(result);
+            });
+        }).doOnNext(result -> logger.info("Salle mise à jour avec succès: {}", result.getId()));
+    }
+
+    public Mono<Void> deleteGym(String id) {
+        logger.info("Suppression réactive de la salle: {}", id);
+        return reactiveGymRepository.findById(id)
+            .flatMap(gym -> reactiveGymRepository.deleteById(id)
+                .then(reactiveKafkaProducerService.publish(
+                    GymEvent.deleted(gym.getId(), gym.getName()), "Salle supprimée: " + gym.getName()))
+                .doOnSuccess(done -> logger.info("Salle supprimée avec succès: {}", id))
+                .thenReturn(gym))
+            .switchIfEmpty(Mono.fromRunnable(
+                () -> logger.warn("Tentative de suppression d'une salle inexistante: {}", id)))
+            .then();
+    }
+}
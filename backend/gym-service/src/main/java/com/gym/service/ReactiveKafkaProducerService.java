@@ -0,0 +1,78 @@
+package com.gym.service;
+
+import com.gym.event.GymEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.SenderResult;
+
+/**
+ * Publication Kafka non bloquante (reactor-kafka) pour la variante réactive de l'API /gyms
+ * Mêmes topics, clés et métriques que KafkaProducerService; un échec d'envoi est journalisé
+ * sans faire échouer la requête, comme pour le producteur bloquant
+ */
+@Service
+public class ReactiveKafkaProducerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveKafkaProducerService.class);
+
+    @Autowired
+    private ReactiveKafkaProducerTemplate<String, String> reactiveStringKafkaTemplate;
+
+    @Autowired
+    private ReactiveKafkaProducerTemplate<String, GymEvent> reactiveGymEventKafkaTemplate;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    /**
+     * Publier un événement GYM et sa notification (terminé à l'accusé du broker)
+     */
+    public Mono<Void> publish(GymEvent event, String notification) {
+        return Mono.when(sendGymEvent(event), sendNotification(event.getGymId(), notification));
+    }
+
+    public Mono<Void> sendGymEvent(GymEvent event) {
+        logger.info("Envoi réactif événement GYM: {} pour salle {}", event.getEventType(), event.getGymId());
+        String topic = KafkaProducerService.GYM_EVENTS_TOPIC;
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            return reactiveGymEventKafkaTemplate.send(topic, event.getGymId(), event)
+                .doOnNext(result -> onSent(topic, startNanos, result))
+                .doOnError(exception -> onSent(topic, startNanos, exception))
+                .onErrorResume(exception -> Mono.empty())
+                .then();
+        });
+    }
+
+    public Mono<Void> sendNotification(String gymId, String message) {
+        logger.info("Envoi réactif notification pour salle {}: {}", gymId, message);
+        String topic = KafkaProducerService.GYM_NOTIFICATIONS_TOPIC;
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            return reactiveStringKafkaTemplate.send(topic, gymId, message)
+                .doOnNext(result -> onSent(topic, startNanos, result))
+                .doOnError(exception -> onSent(topic, startNanos, exception))
+                .onErrorResume(exception -> Mono.empty())
+                .then();
+        });
+    }
+
+    private void onSent(String topic, long startNanos, SenderResult<?> result) {
+        if (result.exception() != null) {
+            onSent(topic, startNanos, result.exception());
+            return;
+        }
+        kafkaProducerService.recordSend(topic, startNanos, null);
+        logger.info("Message envoyé (réactif) sur {}: offset={}, partition={}",
+            topic, result.recordMetadata().offset(), result.recordMetadata().partition());
+    }
+
+    private void onSent(String topic, long startNanos, Throwable exception) {
+        kafkaProducerService.recordSend(topic, startNanos, exception);
+        logger.error("Erreur lors de l'envoi réactif sur {}: {}", topic, exception.getMessage());
+    }
+}
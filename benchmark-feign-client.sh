@@ -0,0 +1,34 @@
+#!/bin/bash
+
+# Benchmark du client HTTP Feign (Course Service -> Gym Service)
+# Usage: ./benchmark-feign-client.sh <libellé> [requêtes] [concurrence]
+# Le Course Service doit être démarré avec le client à mesurer, par exemple:
+#   mvn spring-boot:run -Dspring-boot.run.arguments=--gym-service.http-client.type=default
+# Prérequis: hey (https://github.com/rakyll/hey), Gym Service démarré avec quelques salles
+
+LABEL=${1:?"Libellé du client mesuré requis (default, hc5, http2)"}
+REQUESTS=${2:-20000}
+CONCURRENCY=${3:-50}
+COURSE_SERVICE=${COURSE_SERVICE:-http://localhost:8082}
+# Par défaut: appel Feign direct vers GET /gyms (sans réplique locale ni Circuit Breaker)
+TARGET="$COURSE_SERVICE${TARGET_PATH:-/api/courses/test/gyms-without-cb}"
+RESULTS_DIR=${RESULTS_DIR:-benchmark-results}
+
+mkdir -p "$RESULTS_DIR"
+
+echo "Préchauffage ($LABEL)..."
+hey -n 2000 -c "$CONCURRENCY" "$TARGET" > /dev/null
+
+echo "Mesure ($LABEL): $REQUESTS requêtes, concurrence $CONCURRENCY"
+hey -n "$REQUESTS" -c "$CONCURRENCY" "$TARGET" | tee "$RESULTS_DIR/$LABEL-hey.txt"
+
+# Latence côté client Feign et état du pool (hc5 uniquement)
+curl -s "$COURSE_SERVICE/actuator/prometheus" \
+  | grep -E '^(gym_client_requests_seconds_(count|sum|max)|httpcomponents_httpclient_pool|process_cpu_usage|jvm_threads_(live|peak)_threads|hikaricp_connections_pending)' \
+  | tee "$RESULTS_DIR/$LABEL-metrics.txt"
+
+# Connexions TCP ouvertes vers le Gym Service (renouvellement des connexions)
+echo "Connexions établies vers :8081: $(ss -tn state established '( dport = :8081 )' | tail -n +2 | wc -l)" \
+  | tee -a "$RESULTS_DIR/$LABEL-metrics.txt"
+
+echo "Résultats dans $RESULTS_DIR/$LABEL-*.txt"
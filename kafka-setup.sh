@@ -21,6 +21,15 @@ docker exec kafka kafka-topics --create \
   --partitions 3 \
   --replication-factor 1
 
+# Topics de retry et dead letter des événements de salles (consommés par le Course Service)
+for topic in gym-events-retry-0 gym-events-retry-1 gym-events-retry-2 gym-events-dlt; do
+  docker exec kafka kafka-topics --create \
+    --topic $topic \
+    --bootstrap-server localhost:9092 \
+    --partitions 3 \
+    --replication-factor 1
+done
+
 # Lister les topics créés
 echo "Topics créés:"
 docker exec kafka kafka-topics --list --bootstrap-server localhost:9092